@@ -9,19 +9,114 @@ repositories {
     mavenCentral()
 }
 
+// Dependencies needed by the headless scanner; the GUI adds POI on top of these
+val headless: Configuration by configurations.creating
+configurations.implementation {
+    extendsFrom(headless)
+}
+
 dependencies {
     testImplementation(platform("org.junit:junit-bom:5.10.0"))
     testImplementation("org.junit.jupiter:junit-jupiter")
 
-    implementation("com.fasterxml.jackson.core:jackson-databind:2.16.1")
-    implementation("com.fasterxml.jackson.core:jackson-core:2.16.1")
-    implementation("com.fasterxml.jackson.core:jackson-databind:2.16.1")
-    implementation("com.fasterxml.jackson.core:jackson-annotations:2.16.1")
-    implementation("org.xerial:sqlite-jdbc:3.36.0.3")
+    headless("com.fasterxml.jackson.core:jackson-databind:2.16.1")
+    headless("com.fasterxml.jackson.core:jackson-core:2.16.1")
+    headless("com.fasterxml.jackson.core:jackson-annotations:2.16.1")
+    headless("org.xerial:sqlite-jdbc:3.36.0.3")
     implementation("org.apache.poi:poi-ooxml:5.2.3")
 
 }
 
 tasks.test {
     useJUnitPlatform()
-}
\ No newline at end of file
+}
+
+// Headless CLI: a separate jar without the Swing UI classes, running on a classpath without POI
+val headlessJar by tasks.registering(Jar::class) {
+    archiveClassifier.set("headless")
+    from(sourceSets.main.get().output) {
+        exclude("com/bitcoinchecker/view/**")
+        exclude("com/bitcoinchecker/controller/**")
+        exclude("com/bitcoinchecker/BitcoinAddressChecker*")
+        exclude("com/bitcoinchecker/util/ExcelExporter*")
+        exclude("com/bitcoinchecker/model/*TableModel*")
+    }
+    manifest {
+        attributes(
+            "Main-Class" to "com.bitcoinchecker.cli.HeadlessScanner",
+            "Class-Path" to headless.elements.map { files -> files.joinToString(" ") { "lib/" + it.asFile.name } }
+        )
+    }
+}
+
+val headlessDist by tasks.registering(Sync::class) {
+    group = "distribution"
+    description = "Assembles the headless scanner jar and its runtime libraries into build/headless."
+    into(layout.buildDirectory.dir("headless"))
+    from(headlessJar)
+    into("lib") {
+        from(headless)
+    }
+}
+
+tasks.register<JavaExec>("runHeadless") {
+    group = "application"
+    description = "Runs the headless batch scanner, e.g. gradle runHeadless --args='addresses.txt'."
+    classpath = files(headlessJar) + headless
+    mainClass.set("com.bitcoinchecker.cli.HeadlessScanner")
+    jvmArgs("-Djava.awt.headless=true", "-XX:TieredStopAtLevel=1", "-XX:+UseSerialGC")
+    standardInput = System.`in`
+}
+
+// JMH benchmarks live in their own source set (src/jmh/java) so they never ship in the jars.
+// Run all with `gradle jmh`, or a subset with e.g. `gradle jmh -PjmhArgs="ReportParsing -p reportCount=100"`.
+val jmh: SourceSet by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output
+    runtimeClasspath += sourceSets.main.get().output
+}
+
+configurations[jmh.implementationConfigurationName].extendsFrom(configurations.implementation.get())
+configurations[jmh.runtimeOnlyConfigurationName].extendsFrom(configurations.runtimeOnly.get())
+
+dependencies {
+    jmh.implementationConfigurationName("org.openjdk.jmh:jmh-core:1.37")
+    jmh.annotationProcessorConfigurationName("org.openjdk.jmh:jmh-generator-annprocess:1.37")
+}
+
+tasks.register<JavaExec>("jmh") {
+    group = "verification"
+    description = "Runs the JMH benchmarks; results go to build/jmh/results.json."
+    dependsOn(tasks.named(jmh.classesTaskName))
+    classpath = jmh.runtimeClasspath
+    mainClass.set("org.openjdk.jmh.Main")
+    // Benchmarks create addresses.db and logs.txt in the working directory, away from real data
+    val benchDir = layout.buildDirectory.dir("jmh").get().asFile
+    workingDir = benchDir
+    doFirst { benchDir.mkdirs() }
+    args("-rf", "json", "-rff", "results.json")
+    (findProperty("jmhArgs") as String?)?.let { args(it.split(" ").filter(String::isNotBlank)) }
+}
+
+// Load-test harness (src/loadtest/java): a local ChainAbuse stub server plus a load generator
+// that scans through the real pipeline against it. Run with `gradle loadTest`, passing
+// options as e.g. -PloadTestArgs="--addresses 10000 --concurrency 5,50,500 --throttle-rate 0.01".
+val loadtest: SourceSet by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output
+    runtimeClasspath += sourceSets.main.get().output
+}
+
+configurations[loadtest.implementationConfigurationName].extendsFrom(configurations.implementation.get())
+configurations[loadtest.runtimeOnlyConfigurationName].extendsFrom(configurations.runtimeOnly.get())
+
+tasks.register<JavaExec>("loadTest") {
+    group = "verification"
+    description = "Load-tests the scan pipeline against the local ChainAbuse stub server."
+    dependsOn(tasks.named(loadtest.classesTaskName))
+    classpath = loadtest.runtimeClasspath
+    mainClass.set("com.bitcoinchecker.loadtest.LoadGenerator")
+    val loadTestDir = layout.buildDirectory.dir("loadtest").get().asFile
+    workingDir = loadTestDir
+    doFirst { loadTestDir.mkdirs() }
+    jvmArgs("-Djava.awt.headless=true")
+    (findProperty("loadTestArgs") as String?)?.let { args(it.split(" ").filter(String::isNotBlank)) }
+}
@@ -0,0 +1,98 @@
+package com.bitcoinchecker.api;
+
+import com.bitcoinchecker.api.response.ChainAbuseReport;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Parsing of ChainAbuse report lists, from a single report up to a huge list.
+ * Compares the streaming counter (byte[] and chunked body subscriber, as used by
+ * sendAsync) against binding the whole list with ObjectMapper.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReportParsingBenchmark {
+    private static final int CHUNK_SIZE = 16 * 1024;
+    private static final TypeReference<List<ChainAbuseReport>> REPORT_LIST = new TypeReference<>() {
+    };
+
+    @Param({"1", "100", "50000"})
+    public int reportCount;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ReportStreamParser parser = new ReportStreamParser(objectMapper);
+    private byte[] body;
+    private List<ByteBuffer> chunks;
+
+    @Setup
+    public void setUp() {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < reportCount; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"id\":\"").append(i).append("\",\"address\":\"1BoatSLRHtKNngkdXEeobR76b53LETtpyT\"")
+                    .append(",\"report_count\":").append(i % 7)
+                    .append(",\"scamCategory\":\"PHISHING\",\"description\":\"Reported scam wallet number ")
+                    .append(i).append("\",\"createdAt\":\"2024-01-01T00:00:00Z\",\"accusedScammers\":[]}");
+        }
+        body = json.append(']').toString().getBytes(StandardCharsets.UTF_8);
+
+        chunks = new ArrayList<>();
+        for (int offset = 0; offset < body.length; offset += CHUNK_SIZE) {
+            chunks.add(ByteBuffer.wrap(body, offset, Math.min(CHUNK_SIZE, body.length - offset)));
+        }
+    }
+
+    @Benchmark
+    public int streamingCount() throws IOException {
+        return parser.countReports(body);
+    }
+
+    @Benchmark
+    public int streamingSubscriber() {
+        HttpResponse.BodySubscriber<Integer> subscriber = parser.countingSubscriber();
+        subscriber.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+            }
+
+            @Override
+            public void cancel() {
+            }
+        });
+        for (ByteBuffer chunk : chunks) {
+            subscriber.onNext(List.of(chunk.duplicate()));
+        }
+        subscriber.onComplete();
+        return subscriber.getBody().toCompletableFuture().join();
+    }
+
+    @Benchmark
+    public int databindList() throws IOException {
+        return objectMapper.readValue(body, REPORT_LIST).size();
+    }
+}
@@ -0,0 +1,79 @@
+package com.bitcoinchecker.db;
+
+import com.bitcoinchecker.model.BitcoinAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Scan result persistence: one auto-commit statement per row versus one batched
+ * transaction (what ScanResultWriter does). Scores are per row.
+ * Runs against addresses.db in the benchmark working directory (build/jmh).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DatabaseWriteBenchmark {
+    private static final int ROWS = 500;
+
+    @Param({"0", "12"})
+    public int abuseCount;
+
+    private DatabaseManager database;
+    private List<BitcoinAddress> rows;
+
+    @Setup(Level.Trial)
+    public void openDatabase() {
+        database = DatabaseManager.getInstance();
+        database.initDatabase();
+        database.deleteAllData();
+    }
+
+    @Setup(Level.Invocation)
+    public void createRows() {
+        // Fresh addresses per invocation, so every write is an insert rather than an update
+        rows = new ArrayList<>(ROWS);
+        long seed = System.nanoTime();
+        for (int i = 0; i < ROWS; i++) {
+            BitcoinAddress address = new BitcoinAddress("bench-" + seed + "-" + i);
+            address.setAbuseCount(abuseCount);
+            rows.add(address);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void clearDatabase() {
+        database.deleteAllData();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void singleRowWrites() {
+        for (BitcoinAddress row : rows) {
+            database.saveScanResult(row);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void batchedWrite() {
+        database.saveScanResults(rows);
+    }
+}
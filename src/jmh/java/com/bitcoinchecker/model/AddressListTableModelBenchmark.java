@@ -0,0 +1,99 @@
+package com.bitcoinchecker.model;
+
+import com.bitcoinchecker.db.DatabaseManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Address list lookups and inserts at 10k to 1M rows.
+ * addAddress includes its database insert, as in the application (which runs it off the EDT
+ * and appends the row once it is stored).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class AddressListTableModelBenchmark {
+    @Param({"10000", "100000", "1000000"})
+    public int rows;
+
+    private AddressListTableModel model;
+    private String[] present;
+    private String[] absent;
+    private int cursor;
+    private long added;
+
+    @Setup(Level.Trial)
+    public void openDatabase() {
+        DatabaseManager.getInstance().initDatabase();
+        DatabaseManager.getInstance().deleteAllData();
+    }
+
+    @Setup(Level.Iteration)
+    public void fillModel() {
+        model = new AddressListTableModel();
+        List<String> addresses = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            addresses.add(syntheticAddress(i));
+        }
+        model.appendAddresses(addresses);
+
+        present = new String[1024];
+        absent = new String[1024];
+        for (int i = 0; i < present.length; i++) {
+            present[i] = syntheticAddress((int) ((long) i * rows / present.length));
+            absent[i] = syntheticAddress(rows + i);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void clearDatabase() {
+        DatabaseManager.getInstance().deleteAllData();
+    }
+
+    @Benchmark
+    public boolean containsPresent() {
+        return model.containsAddress(present[cursor++ & (present.length - 1)]);
+    }
+
+    @Benchmark
+    public boolean containsAbsent() {
+        return model.containsAddress(absent[cursor++ & (absent.length - 1)]);
+    }
+
+    @Benchmark
+    public int addAddress() {
+        String address = "bench-added-" + added++;
+        DatabaseManager.getInstance().saveAddress(address);
+        model.appendAddresses(List.of(address));
+        return model.getRowCount();
+    }
+
+    /**
+     * Address-shaped (34 char) unique strings; validity does not matter to the table model.
+     */
+    private static String syntheticAddress(int i) {
+        StringBuilder address = new StringBuilder("1Bench");
+        String digits = Integer.toString(i, 36);
+        for (int pad = 28 - digits.length(); pad > 0; pad--) {
+            address.append('x');
+        }
+        return address.append(digits).toString();
+    }
+}
@@ -0,0 +1,86 @@
+package com.bitcoinchecker.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Results table sorting and filtering at 10k to 1M rows.
+ * addBatch merges one frame's worth of results into a table sorted by abuse count.
+ * Every operation changes the model, so each one is timed once on a freshly filled model.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10)
+@Measurement(iterations = 20)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class AddressTableModelBenchmark {
+    private static final int BATCH_SIZE = 500;
+
+    @Param({"10000", "100000", "1000000"})
+    public int rows;
+
+    private List<BitcoinAddress> results;
+    private List<BitcoinAddress> batch;
+    private AddressTableModel model;
+    private boolean descending;
+
+    @Setup(Level.Trial)
+    public void createResults() {
+        Random random = new Random(42);
+        results = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            results.add(result("1Bench" + Integer.toString(random.nextInt(), 36), random));
+        }
+        batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            batch.add(result("1Added" + i, random));
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void fillModel() {
+        model = new AddressTableModel();
+        model.sortBy(AddressTableModel.ABUSE_COUNT_COLUMN, true);
+        model.addAddresses(results);
+    }
+
+    @Benchmark
+    public int addBatch() {
+        model.addAddresses(batch);
+        return model.getRowCount();
+    }
+
+    @Benchmark
+    public int sortByAddress() {
+        descending = !descending;
+        model.sortBy(AddressTableModel.ADDRESS_COLUMN, descending);
+        return model.getRowCount();
+    }
+
+    @Benchmark
+    public int filter() {
+        model.setFilter(5, "1Bench1");
+        return model.getRowCount();
+    }
+
+    private static BitcoinAddress result(String address, Random random) {
+        BitcoinAddress result = new BitcoinAddress(address);
+        result.setAbuseCount(random.nextInt(20));
+        return result;
+    }
+}
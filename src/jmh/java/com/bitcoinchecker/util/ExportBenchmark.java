@@ -0,0 +1,82 @@
+package com.bitcoinchecker.util;
+
+import com.bitcoinchecker.db.DatabaseManager;
+import com.bitcoinchecker.model.BitcoinAddress;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Full result exports at scale, Excel (SXSSF) next to the streaming CSV exporter.
+ * Each measurement is one complete export of the scan_results table.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+public class ExportBenchmark {
+    private static final int INSERT_BATCH = 10_000;
+
+    @Param({"100000", "1000000"})
+    public int rows;
+
+    private DatabaseManager database;
+    private Path directory;
+
+    @Setup
+    public void fillDatabase() throws IOException {
+        database = DatabaseManager.getInstance();
+        database.initDatabase();
+        database.deleteAllData();
+        List<BitcoinAddress> batch = new ArrayList<>(INSERT_BATCH);
+        for (int i = 0; i < rows; i++) {
+            BitcoinAddress address = new BitcoinAddress("bench-export-" + i);
+            address.setAbuseCount(i % 5);
+            batch.add(address);
+            if (batch.size() == INSERT_BATCH) {
+                database.saveScanResults(batch);
+                batch.clear();
+            }
+        }
+        database.saveScanResults(batch);
+        directory = Files.createTempDirectory("export-bench");
+    }
+
+    @TearDown
+    public void cleanUp() throws IOException {
+        database.deleteAllData();
+        try (var files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Benchmark
+    public int excel() throws IOException {
+        return new ExcelExporter().export(database, directory.resolve("results.xlsx"), written -> true);
+    }
+
+    @Benchmark
+    public int csv() throws IOException {
+        return new CsvExporter(false).export(database, directory.resolve("results.csv"), written -> true);
+    }
+}
@@ -0,0 +1,40 @@
+package com.bitcoinchecker.util;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Logger.log from one thread and under contention from eight.
+ * Sustained rates include backpressure from the log writer once the ring buffer is full.
+ * Writes logs.txt in the benchmark working directory (build/jmh).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoggerBenchmark {
+    private final Logger logger = Logger.getInstance();
+
+    @Benchmark
+    @Threads(1)
+    public void logSingleThread() {
+        logger.log("Scanned address: 1BoatSLRHtKNngkdXEeobR76b53LETtpyT", false);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void logContended() {
+        logger.log("Scanned address: 1BoatSLRHtKNngkdXEeobR76b53LETtpyT", false);
+    }
+}
@@ -0,0 +1,250 @@
+package com.bitcoinchecker.loadtest;
+
+import com.bitcoinchecker.api.AdaptiveConcurrencyLimiter;
+import com.bitcoinchecker.api.ChainAbuseClient;
+import com.bitcoinchecker.api.RateLimiter;
+import com.bitcoinchecker.metrics.ScanMetrics;
+import com.bitcoinchecker.model.AddressScannerModel;
+import com.bitcoinchecker.model.BitcoinAddress;
+import com.bitcoinchecker.model.ScanExecutionMode;
+import com.bitcoinchecker.observer.ScanObserver;
+import com.bitcoinchecker.scheduler.PriorityLookupScheduler;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Load test of the scan pipeline (AddressScannerModel -> PriorityLookupScheduler -> ChainAbuseClient)
+ * against the local StubChainAbuseServer.
+ * Runs every execution mode at every concurrency level over the same generated addresses and
+ * prints throughput and tail latency per run, read from ScanMetrics. The lookup cache is left
+ * out, so every address is a real HTTP request.
+ * Each run also reports its peak used heap (sampled from the MemoryMXBean after a GC, so it
+ * starts from the live baseline) and peak live platform thread count. Virtual threads are not
+ * counted by the ThreadMXBean, so the virtual mode shows only its carrier and helper threads.
+ *
+ * Usage: LoadGenerator [--addresses N] [--concurrency 5,50,500] [--modes async,platform,virtual]
+ *                      [--latency-ms 20] [--latency-sigma 0.5] [--throttle-rate 0] [--retry-after 1]
+ *                      [--error-burst-every 0] [--error-burst-length 0] [--not-found-rate 0.2]
+ *                      [--reports 3] [--max-retries 5]
+ */
+public class LoadGenerator {
+    private static final double UNLIMITED_RATE = 1_000_000;
+    private static final int WARMUP_ADDRESSES = 500;
+    private static final long SCHEDULER_MAX_WAIT_MILLIS = 10_000;
+    private static final long HEAP_SAMPLE_MILLIS = 5;
+
+    private int addressCount = 5000;
+    private List<Integer> concurrencyLevels = List.of(5, 50, 500);
+    private List<ScanExecutionMode> modes = List.of(ScanExecutionMode.ASYNC, ScanExecutionMode.PLATFORM,
+            ScanExecutionMode.VIRTUAL);
+    private int maxRetries = 5;
+    private final StubChainAbuseServer.Behavior behavior = new StubChainAbuseServer.Behavior();
+
+    public static void main(String[] args) throws IOException {
+        System.setProperty("java.awt.headless", "true");
+        LoadGenerator generator = new LoadGenerator();
+        try {
+            generator.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(64);
+        }
+        generator.run();
+        System.exit(0);
+    }
+
+    private void parse(String[] args) {
+        double latencyMillis = 20;
+        double latencySigma = 0.5;
+        double throttleRate = 0;
+        int retryAfter = 1;
+        int burstEvery = 0;
+        int burstLength = 0;
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (++i >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + option);
+            }
+            String value = args[i];
+            switch (option) {
+                case "--addresses" -> addressCount = Integer.parseInt(value);
+                case "--concurrency" -> concurrencyLevels = parseInts(value);
+                case "--modes" -> {
+                    List<ScanExecutionMode> parsed = new ArrayList<>();
+                    for (String mode : value.split(",")) {
+                        parsed.add(ScanExecutionMode.fromString(mode.trim()));
+                    }
+                    modes = parsed;
+                }
+                case "--latency-ms" -> latencyMillis = Double.parseDouble(value);
+                case "--latency-sigma" -> latencySigma = Double.parseDouble(value);
+                case "--throttle-rate" -> throttleRate = Double.parseDouble(value);
+                case "--retry-after" -> retryAfter = Integer.parseInt(value);
+                case "--error-burst-every" -> burstEvery = Integer.parseInt(value);
+                case "--error-burst-length" -> burstLength = Integer.parseInt(value);
+                case "--not-found-rate" -> behavior.notFoundRate(Double.parseDouble(value));
+                case "--reports" -> behavior.reportsPerResponse(Integer.parseInt(value));
+                case "--max-retries" -> maxRetries = Integer.parseInt(value);
+                default -> throw new IllegalArgumentException("Unknown option: " + option);
+            }
+        }
+        behavior.latency(latencyMillis, latencySigma)
+                .throttle(throttleRate, retryAfter)
+                .errorBursts(burstEvery, burstLength);
+    }
+
+    private static List<Integer> parseInts(String value) {
+        List<Integer> values = new ArrayList<>();
+        for (String part : value.split(",")) {
+            values.add(Integer.parseInt(part.trim()));
+        }
+        return values;
+    }
+
+    private void run() throws IOException {
+        List<String> addresses = TestAddresses.generate(addressCount, 42);
+        try (StubChainAbuseServer server = new StubChainAbuseServer(0, behavior)) {
+            System.out.println("Stub " + server.getBaseUrl() + ": " + behavior);
+            System.out.println("Scanning " + addressCount + " addresses per run");
+
+            // JIT warm-up of the whole pipeline, not reported
+            scan(server, modes.get(0), concurrencyLevels.get(0), TestAddresses.generate(WARMUP_ADDRESSES, 7));
+
+            System.out.printf(Locale.ROOT, "%-9s %6s %9s %9s %9s %9s %9s %9s %6s %6s %7s %9s %7s%n",
+                    "mode", "conc", "addr/s", "p50 ms", "p99 ms", "p999 ms", "api p99", "api max", "429", "5xx", "failed",
+                    "heap MB", "threads");
+            for (ScanExecutionMode mode : modes) {
+                for (int concurrency : concurrencyLevels) {
+                    RunResult result = scan(server, mode, concurrency, addresses);
+                    ScanMetrics metrics = ScanMetrics.getInstance();
+                    System.out.printf(Locale.ROOT, "%-9s %6d %9.1f %9.1f %9.1f %9.1f %9.1f %9.1f %6d %6d %7d %9.1f %7d%n",
+                            result.mode, concurrency, result.scanned / result.seconds,
+                            metrics.getScanLatencyP50Millis(), metrics.getScanLatencyP99Millis(),
+                            metrics.getScanLatencyP999Millis(), metrics.getApiLatencyP99Millis(),
+                            metrics.getApiLatencyMaxMillis(), server.getServed429(), server.getServed5xx(),
+                            result.failed, result.peakHeapBytes / (1024.0 * 1024.0), result.peakThreads);
+                }
+            }
+        }
+    }
+
+    private RunResult scan(StubChainAbuseServer server, ScanExecutionMode mode, int concurrency,
+                           List<String> addresses) {
+        ScanMetrics.getInstance().reset();
+        server.resetCounters();
+        ChainAbuseClient client = new ChainAbuseClient("load-test", server.getBaseUrl(),
+                new RateLimiter(UNLIMITED_RATE, concurrency), new AdaptiveConcurrencyLimiter(1, concurrency),
+                maxRetries);
+        PriorityLookupScheduler scheduler = new PriorityLookupScheduler(client, concurrency, SCHEDULER_MAX_WAIT_MILLIS);
+        AddressScannerModel model = new AddressScannerModel(mode, scheduler, concurrency, concurrency);
+
+        AtomicInteger scanned = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        model.addObserver(new ScanObserver() {
+            @Override
+            public void onScanStarted() {
+            }
+
+            @Override
+            public void onAddressScanned(BitcoinAddress address) {
+                scanned.incrementAndGet();
+            }
+
+            @Override
+            public void onScanCompleted(List<BitcoinAddress> results) {
+            }
+
+            @Override
+            public void onScanFailed(Exception e) {
+            }
+
+            @Override
+            public void onAddressFailed(BitcoinAddress address, Exception e) {
+                failed.incrementAndGet();
+            }
+        });
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        System.gc();
+        threads.resetPeakThreadCount();
+        HeapSampler heap = new HeapSampler();
+        long start = System.nanoTime();
+        try {
+            model.scanAddresses(addresses.iterator()).join();
+        } finally {
+            model.shutdown();
+            heap.stop();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        return new RunResult(model.getExecutionMode(), scanned.get(), failed.get(), seconds,
+                heap.getPeakBytes(), threads.getPeakThreadCount());
+    }
+
+    /**
+     * Polls used heap on a daemon thread and keeps the highest value seen.
+     */
+    private static class HeapSampler {
+        private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        private final Thread thread;
+        private volatile boolean running = true;
+        private volatile long peakBytes;
+
+        HeapSampler() {
+            peakBytes = memory.getHeapMemoryUsage().getUsed();
+            thread = new Thread(this::sample, "heap-sampler");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        private void sample() {
+            while (running) {
+                peakBytes = Math.max(peakBytes, memory.getHeapMemoryUsage().getUsed());
+                try {
+                    Thread.sleep(HEAP_SAMPLE_MILLIS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+
+        void stop() {
+            running = false;
+            thread.interrupt();
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            peakBytes = Math.max(peakBytes, memory.getHeapMemoryUsage().getUsed());
+        }
+
+        long getPeakBytes() {
+            return peakBytes;
+        }
+    }
+
+    private static class RunResult {
+        private final String mode;
+        private final int scanned;
+        private final int failed;
+        private final double seconds;
+        private final long peakHeapBytes;
+        private final int peakThreads;
+
+        RunResult(ScanExecutionMode mode, int scanned, int failed, double seconds, long peakHeapBytes,
+                  int peakThreads) {
+            this.mode = mode.name().toLowerCase(Locale.ROOT);
+            this.scanned = scanned;
+            this.failed = failed;
+            this.seconds = seconds;
+            this.peakHeapBytes = peakHeapBytes;
+            this.peakThreads = peakThreads;
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.bitcoinchecker.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-in for the ChainAbuse /v0/reports?address= endpoint, so the scanner can be
+ * load-tested without spending API quota.
+ * Features:
+ * - Log-normal response latency (median and spread), applied to every response
+ * - Random 429 responses carrying a Retry-After header
+ * - 503 bursts: the first N of every M requests fail
+ * - Configurable 404 rate and number of reports per 200 response
+ * - Counters per response kind
+ * Point the client at it with -Dapi.base.url=<getBaseUrl()> or the ChainAbuseClient base URL constructor.
+ */
+public class StubChainAbuseServer implements AutoCloseable {
+    private static final String REPORTS_PATH = "/v0/reports";
+
+    private final Behavior behavior;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final byte[] reportsBody;
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong served200 = new AtomicLong();
+    private final AtomicLong served404 = new AtomicLong();
+    private final AtomicLong served429 = new AtomicLong();
+    private final AtomicLong served5xx = new AtomicLong();
+
+    /**
+     * Response shaping knobs; the defaults give a fast, well-behaved API.
+     */
+    public static class Behavior {
+        private double latencyMedianMillis = 20;
+        private double latencySigma = 0.5;
+        private double throttleRate;
+        private int retryAfterSeconds = 1;
+        private int errorBurstEvery;
+        private int errorBurstLength;
+        private double notFoundRate = 0.2;
+        private int reportsPerResponse = 3;
+
+        public Behavior latency(double medianMillis, double sigma) {
+            this.latencyMedianMillis = medianMillis;
+            this.latencySigma = sigma;
+            return this;
+        }
+
+        public Behavior throttle(double rate, int retryAfterSeconds) {
+            this.throttleRate = rate;
+            this.retryAfterSeconds = retryAfterSeconds;
+            return this;
+        }
+
+        public Behavior errorBursts(int every, int length) {
+            this.errorBurstEvery = every;
+            this.errorBurstLength = length;
+            return this;
+        }
+
+        public Behavior notFoundRate(double rate) {
+            this.notFoundRate = rate;
+            return this;
+        }
+
+        public Behavior reportsPerResponse(int reports) {
+            this.reportsPerResponse = reports;
+            return this;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("latency median=%.0fms sigma=%.2f, 429 rate=%.3f (Retry-After %ds), "
+                            + "5xx bursts %d/%d, 404 rate=%.2f, %d reports per response",
+                    latencyMedianMillis, latencySigma, throttleRate, retryAfterSeconds,
+                    errorBurstLength, errorBurstEvery, notFoundRate, reportsPerResponse);
+        }
+    }
+
+    /**
+     * Starts the server on the loopback interface; port 0 picks a free port.
+     */
+    public StubChainAbuseServer(int port, Behavior behavior) throws IOException {
+        this.behavior = behavior;
+        this.reportsBody = renderReports(behavior.reportsPerResponse);
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 1024);
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "stub-chainabuse");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.createContext(REPORTS_PATH, this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    public String getBaseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + "/v0";
+    }
+
+    public long getRequestCount() {
+        return requests.get();
+    }
+
+    public long getServed200() {
+        return served200.get();
+    }
+
+    public long getServed404() {
+        return served404.get();
+    }
+
+    public long getServed429() {
+        return served429.get();
+    }
+
+    public long getServed5xx() {
+        return served5xx.get();
+    }
+
+    public void resetCounters() {
+        requests.set(0);
+        served200.set(0);
+        served404.set(0);
+        served429.set(0);
+        served5xx.set(0);
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            long request = requests.getAndIncrement();
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            sleepMillis(behavior.latencyMedianMillis * Math.exp(behavior.latencySigma * random.nextGaussian()));
+
+            if (!"GET".equals(exchange.getRequestMethod()) || exchange.getRequestURI().getQuery() == null
+                    || !exchange.getRequestURI().getQuery().startsWith("address=")) {
+                respond(exchange, 400, "{\"error\":\"address parameter required\"}");
+                return;
+            }
+            if (behavior.errorBurstEvery > 0 && request % behavior.errorBurstEvery < behavior.errorBurstLength) {
+                served5xx.incrementAndGet();
+                respond(exchange, 503, "{\"error\":\"service unavailable\"}");
+            } else if (random.nextDouble() < behavior.throttleRate) {
+                served429.incrementAndGet();
+                exchange.getResponseHeaders().set("Retry-After", Integer.toString(behavior.retryAfterSeconds));
+                respond(exchange, 429, "{\"error\":\"too many requests\"}");
+            } else if (random.nextDouble() < behavior.notFoundRate) {
+                served404.incrementAndGet();
+                respond(exchange, 404, "{\"error\":\"not found\"}");
+            } else {
+                served200.incrementAndGet();
+                exchange.getResponseHeaders().set("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, reportsBody.length);
+                try (OutputStream body = exchange.getResponseBody()) {
+                    body.write(reportsBody);
+                }
+            }
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static void sleepMillis(double millis) {
+        long nanos = (long) (millis * 1_000_000);
+        if (nanos <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static byte[] renderReports(int count) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"id\":\"stub-").append(i)
+                    .append("\",\"scamCategory\":\"PHISHING\",\"description\":\"Stub report ").append(i)
+                    .append("\",\"createdAt\":\"2024-01-01T00:00:00Z\",\"accusedScammers\":[]}");
+        }
+        return json.append(']').toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,57 @@
+package com.bitcoinchecker.loadtest;
+
+import java.math.BigInteger;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates distinct, checksum-valid P2PKH addresses, so load runs pass local validation
+ * and never hit the lookup cache.
+ */
+final class TestAddresses {
+    private static final String BASE58_ALPHABET = "123456789ABCDEFGHJKLMNPQRSTUVWXYZabcdefghijkmnopqrstuvwxyz";
+    private static final BigInteger BASE = BigInteger.valueOf(58);
+
+    private TestAddresses() {
+    }
+
+    static List<String> generate(int count, long seed) {
+        MessageDigest sha256;
+        try {
+            sha256 = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        Random random = new Random(seed);
+        List<String> addresses = new ArrayList<>(count);
+        byte[] payload = new byte[25];
+        for (int i = 0; i < count; i++) {
+            payload[0] = 0x00;
+            byte[] hash160 = new byte[20];
+            random.nextBytes(hash160);
+            System.arraycopy(hash160, 0, payload, 1, 20);
+            sha256.update(payload, 0, 21);
+            byte[] checksum = sha256.digest(sha256.digest());
+            System.arraycopy(checksum, 0, payload, 21, 4);
+            addresses.add(base58(payload));
+        }
+        return addresses;
+    }
+
+    private static String base58(byte[] payload) {
+        StringBuilder encoded = new StringBuilder();
+        BigInteger value = new BigInteger(1, payload);
+        while (value.signum() > 0) {
+            BigInteger[] divRem = value.divideAndRemainder(BASE);
+            encoded.append(BASE58_ALPHABET.charAt(divRem[1].intValue()));
+            value = divRem[0];
+        }
+        for (int i = 0; i < payload.length && payload[i] == 0; i++) {
+            encoded.append('1');
+        }
+        return encoded.reverse().toString();
+    }
+}
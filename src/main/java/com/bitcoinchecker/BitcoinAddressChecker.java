@@ -1,16 +1,23 @@
 package com.bitcoinchecker;
 
 import com.bitcoinchecker.db.DatabaseManager;
+import com.bitcoinchecker.db.ScanJobCheckpointer;
+import com.bitcoinchecker.db.ScanResultWriter;
+import com.bitcoinchecker.metrics.ScanMetrics;
 import com.bitcoinchecker.model.AddressListTableModel;
 import com.bitcoinchecker.model.AddressScannerModel;
+import com.bitcoinchecker.model.AddressStore;
 import com.bitcoinchecker.model.AddressTableModel;
-import com.bitcoinchecker.model.BitcoinAddress;
+import com.bitcoinchecker.scheduler.WatchlistMonitor;
 import com.bitcoinchecker.view.AddressScannerView;
 import com.bitcoinchecker.controller.AddressScannerController;
+import com.bitcoinchecker.util.ApiClientManager;
+import com.bitcoinchecker.util.Config;
 import com.bitcoinchecker.util.Logger;
 import javax.swing.SwingUtilities;
 import javax.swing.UIManager;
-import java.util.List;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Main application class for Bitcoin Address Scanner that implements MVC pattern.
@@ -18,7 +25,10 @@ import java.util.List;
  * - Models (AddressScannerModel, AddressListTableModel, AddressTableModel)
  * - View (AddressScannerView)
  * - Controller (AddressScannerController)
- * Sets up UI, database connection, and loads saved addresses.
+ * Sets up UI, database connection, write-behind result persistence, scan job checkpointing,
+ * the optional watchlist monitor and the metrics MBean, and loads saved addresses.
+ * Saved addresses and results are streamed from the database into the compact table stores
+ * off the EDT, so the window appears at once however much has been saved.
  */
 public class BitcoinAddressChecker {
     public static void main(String[] args) {
@@ -31,16 +41,39 @@ public class BitcoinAddressChecker {
                     AddressListTableModel addressesModel = new AddressListTableModel();
                     AddressTableModel resultsModel = new AddressTableModel();
                     DatabaseManager.getInstance().initDatabase(); // Use singleton instance
-                    List<String> savedAddresses = DatabaseManager.getInstance().loadAddresses(); // Use singleton instance
-                    List<BitcoinAddress> savedResults = DatabaseManager.getInstance().loadScanResults();
-                    savedResults.forEach(resultsModel::addAddress);
-                    savedAddresses.forEach(addressesModel::addAddress);
+                    Config config = Config.getInstance();
+                    ScanMetrics.getInstance().registerMBean();
+                    ScanResultWriter resultWriter = new ScanResultWriter(DatabaseManager.getInstance(),
+                            config.getDbWriteQueueCapacity(), config.getDbWriteBatchSize(), config.getDbWriteFlushMillis());
+                    ScanJobCheckpointer checkpointer = new ScanJobCheckpointer(DatabaseManager.getInstance(),
+                            resultWriter, config.getDbWriteQueueCapacity(), config.getDbWriteBatchSize(), config.getDbWriteFlushMillis());
+                    WatchlistMonitor monitor = config.isMonitorEnabled() ? new WatchlistMonitor(
+                            DatabaseManager.getInstance(), ApiClientManager.getInstance().getLookup(), resultWriter,
+                            config.getMonitorRescanInterval(), config.getMonitorJitterPercent(),
+                            config.getMonitorMaxInFlight(), config.getMonitorResyncInterval(),
+                            config.getApiRateLimit()) : null;
+                    Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                        if (monitor != null) {
+                            monitor.close();
+                        }
+                        resultWriter.close();
+                        checkpointer.close();
+                        DatabaseManager.getInstance().close();
+                        Logger.getInstance().close();
+                    }));
                     AddressScannerView view = new AddressScannerView(resultsModel, addressesModel);
-                    Logger.setLogArea(view.getLogArea());
+                    Logger.getInstance().setSink(view.getLogSink());
                     AddressScannerController controller = new AddressScannerController(
-                            model, view, resultsModel, addressesModel);
+                            model, view, resultsModel, addressesModel, resultWriter, checkpointer);
+                    model.addObserver(resultWriter);
+                    model.addObserver(checkpointer);
                     model.addObserver(view);
+                    if (monitor != null) {
+                        model.addObserver(monitor);
+                        monitor.start();
+                    }
                     view.setVisible(true);
+                    loadSavedData(view, addressesModel, resultsModel);
                 } catch (Exception e) {
                     e.printStackTrace();
                 }
@@ -49,4 +82,52 @@ public class BitcoinAddressChecker {
             e.printStackTrace();
         }
     }
+
+    /**
+     * Streams saved addresses and results into compact stores on a background thread and hands
+     * them to the table models on the EDT. Scanning, importing and clearing wait until the list
+     * is complete.
+     */
+    private static void loadSavedData(AddressScannerView view, AddressListTableModel addressesModel,
+                                      AddressTableModel resultsModel) {
+        view.getScanButton().setEnabled(false);
+        view.getUploadButton().setEnabled(false);
+        view.getClearButton().setEnabled(false);
+        DatabaseManager database = DatabaseManager.getInstance();
+        CompletableFuture.runAsync(() -> {
+            AddressStore addresses = new AddressStore(false);
+            database.forEachAddress(addresses::add);
+            SavedResults results = new SavedResults();
+            database.forEachScanResult(results);
+            SwingUtilities.invokeLater(() -> {
+                resultsModel.addAddresses(results.addresses, results.abuseCounts);
+                addressesModel.appendAddresses(addresses);
+            });
+        }).whenComplete((ignored, error) -> SwingUtilities.invokeLater(() -> {
+            if (error != null) {
+                Logger.getInstance().log("Failed to load saved data: " + error.getMessage(), true);
+            }
+            view.getScanButton().setEnabled(true);
+            view.getUploadButton().setEnabled(true);
+            view.getClearButton().setEnabled(true);
+        }));
+    }
+
+    /**
+     * Scan results read from the database: addresses in a store, abuse counts by row.
+     */
+    private static class SavedResults implements DatabaseManager.ScanResultVisitor {
+        private final AddressStore addresses = new AddressStore(false);
+        private int[] abuseCounts = new int[1024];
+
+        @Override
+        public boolean visit(String address, int abuseCount, String reportUrl) {
+            int row = addresses.add(address);
+            if (row == abuseCounts.length) {
+                abuseCounts = Arrays.copyOf(abuseCounts, row + (row >> 1));
+            }
+            abuseCounts[row] = abuseCount;
+            return true;
+        }
+    }
 }
\ No newline at end of file
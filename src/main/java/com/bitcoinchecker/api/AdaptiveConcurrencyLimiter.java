@@ -0,0 +1,117 @@
+package com.bitcoinchecker.api;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AIMD (additive increase, multiplicative decrease) limit on concurrent API requests.
+ * Features:
+ * - Limit halves when the API throttles us (at most once per cooldown window)
+ * - Limit grows by roughly one request per round of successful calls
+ * - Bounded between a minimum and the configured maximum
+ * - Non-blocking: permits are handed out by completing futures, so waiting
+ *   requests do not hold a thread
+ * - Cancelled waiters are skipped, and a permit granted to a waiter cancelled at the same
+ *   moment is handed on, so abandoned requests never hold permits
+ */
+public class AdaptiveConcurrencyLimiter {
+    private static final long DECREASE_COOLDOWN_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final Queue<CompletableFuture<Void>> waiters = new ArrayDeque<>();
+    private final int minLimit;
+    private final int maxLimit;
+    private double limit;
+    private int inFlight;
+    private long lastDecrease;
+
+    public AdaptiveConcurrencyLimiter(int minLimit, int maxLimit) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Invalid concurrency bounds: " + minLimit + ".." + maxLimit);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = maxLimit;
+        this.lastDecrease = System.nanoTime() - DECREASE_COOLDOWN_NANOS;
+    }
+
+    /**
+     * Returns a future that completes once the caller holds a permit.
+     * Every completed acquire must be paired with a {@link #release()}.
+     */
+    public CompletableFuture<Void> acquireAsync() {
+        synchronized (this) {
+            dropCancelledWaiters();
+            if (waiters.isEmpty() && inFlight < (int) limit) {
+                inFlight++;
+                return CompletableFuture.completedFuture(null);
+            }
+            CompletableFuture<Void> waiter = new CompletableFuture<>();
+            waiters.add(waiter);
+            return waiter;
+        }
+    }
+
+    public void release() {
+        List<CompletableFuture<Void>> granted;
+        synchronized (this) {
+            inFlight--;
+            granted = grantWaiters();
+        }
+        complete(granted);
+    }
+
+    public void onSuccess() {
+        List<CompletableFuture<Void>> granted;
+        synchronized (this) {
+            limit = Math.min(maxLimit, limit + 1.0 / limit);
+            granted = grantWaiters();
+        }
+        complete(granted);
+    }
+
+    public synchronized void onThrottle() {
+        long now = System.nanoTime();
+        if (now - lastDecrease >= DECREASE_COOLDOWN_NANOS) {
+            limit = Math.max(minLimit, limit / 2);
+            lastDecrease = now;
+        }
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    // Called with the monitor held; the futures are completed after it is released
+    private List<CompletableFuture<Void>> grantWaiters() {
+        List<CompletableFuture<Void>> granted = new ArrayList<>();
+        while (inFlight < (int) limit && !waiters.isEmpty()) {
+            CompletableFuture<Void> waiter = waiters.poll();
+            if (!waiter.isDone()) {
+                inFlight++;
+                granted.add(waiter);
+            }
+        }
+        return granted;
+    }
+
+    // Called with the monitor held; otherwise cancelled waiters at the head would make new
+    // requests queue behind them with permits to spare
+    private void dropCancelledWaiters() {
+        while (!waiters.isEmpty() && waiters.peek().isDone()) {
+            waiters.poll();
+        }
+    }
+
+    private void complete(List<CompletableFuture<Void>> granted) {
+        for (CompletableFuture<Void> waiter : granted) {
+            if (!waiter.complete(null)) {
+                // Cancelled after it was granted
+                release();
+            }
+        }
+    }
+}
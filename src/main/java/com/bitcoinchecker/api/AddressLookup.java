@@ -0,0 +1,27 @@
+package com.bitcoinchecker.api;
+
+import com.bitcoinchecker.api.response.AddressResponse;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Abstraction over address abuse lookups.
+ * Implemented by the HTTP client and by decorators layered in front of it
+ * (caching, priority scheduling etc.), so the scanner does not care which one it talks to.
+ * The priority variants let callers pick a scheduling lane; lookups that do not
+ * schedule simply ignore it.
+ */
+public interface AddressLookup {
+    AddressResponse checkAddress(String address) throws IOException, InterruptedException;
+
+    CompletableFuture<AddressResponse> checkAddressAsync(String address);
+
+    default AddressResponse checkAddress(String address, LookupPriority priority)
+            throws IOException, InterruptedException {
+        return checkAddress(address);
+    }
+
+    default CompletableFuture<AddressResponse> checkAddressAsync(String address, LookupPriority priority) {
+        return checkAddressAsync(address);
+    }
+}
@@ -1,67 +1,295 @@
 package com.bitcoinchecker.api;
 
 import com.bitcoinchecker.api.response.AddressResponse;
-import com.bitcoinchecker.api.response.ChainAbuseReport;
+import com.bitcoinchecker.metrics.ScanMetrics;
+import com.bitcoinchecker.model.AddressValidator;
+import com.bitcoinchecker.util.Config;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
-import java.util.List;
-
-import com.fasterxml.jackson.core.type.TypeReference;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * HTTP client for ChainAbuse API integration.
  * Features:
- * - Configurable timeouts
- * - JSON parsing
+ * - Configurable timeouts and base URL (api.base.url)
+ * - Local address validation, so malformed input never spends API quota
+ * - Blocking and non-blocking (sendAsync) lookups sharing one request pipeline
+ * - Token bucket rate limiting and AIMD concurrency control
+ * - 429 retries honoring the Retry-After header
+ * - Cancelling a lookup withdraws it from the limiter queues or aborts its HTTP exchange
+ * - Streaming JSON parsing (report counting without materializing reports)
+ * - Per-request latency and status code metrics
+ * - Optional raw response logging for debugging
  * - Error handling
  * - Response mapping to domain objects
  */
-public class ChainAbuseClient {
-    private static final String API_BASE_URL = "https://api.chainabuse.com/v0";
+public class ChainAbuseClient implements AddressLookup {
+    private static final int STATUS_TOO_MANY_REQUESTS = 429;
+    private static final Duration MAX_RETRY_DELAY = Duration.ofSeconds(60);
     final HttpClient httpClient;
     private final String apiKey;
-    private final ObjectMapper objectMapper;
+    private final String baseUrl;
+    private final ReportStreamParser reportParser;
+    private final boolean logRawResponses;
+    private final RateLimiter rateLimiter;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final int maxRetries;
 
     public ChainAbuseClient(String apiKey) {
+        this(apiKey,
+                new RateLimiter(Config.getInstance().getApiRateLimit(), Config.getInstance().getApiRateBurst()),
+                new AdaptiveConcurrencyLimiter(1, Config.getInstance().getApiMaxConcurrency()),
+                Config.getInstance().getApiMaxRetries());
+    }
+
+    public ChainAbuseClient(String apiKey, RateLimiter rateLimiter,
+                            AdaptiveConcurrencyLimiter concurrencyLimiter, int maxRetries) {
+        this(apiKey, Config.getInstance().getApiBaseUrl(), rateLimiter, concurrencyLimiter, maxRetries);
+    }
+
+    /**
+     * @param baseUrl API root up to the version, e.g. https://api.chainabuse.com/v0 or a local stub
+     */
+    public ChainAbuseClient(String apiKey, String baseUrl, RateLimiter rateLimiter,
+                            AdaptiveConcurrencyLimiter concurrencyLimiter, int maxRetries) {
         this.apiKey = apiKey;
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
         this.httpClient = HttpClient.newBuilder()
                 .connectTimeout(Duration.ofSeconds(10))
                 .build();
-        this.objectMapper = new ObjectMapper();
+        this.reportParser = new ReportStreamParser(new ObjectMapper());
+        this.logRawResponses = Config.getInstance().isRawResponseLoggingEnabled();
+        this.rateLimiter = rateLimiter;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.maxRetries = maxRetries;
     }
 
+    @Override
     public AddressResponse checkAddress(String address) throws IOException, InterruptedException {
+        CompletableFuture<AddressResponse> future = checkAddressAsync(address);
         try {
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(API_BASE_URL + "/reports?address=" + address))
-                    .header("authorization", apiKey)
-                    .header("Accept", "application/json")
-                    .GET()
-                    .build();
-
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-
-            if (response.statusCode() == 200) {
-                System.out.println("Raw response: " + response.body());
-                List<ChainAbuseReport> reports = objectMapper.readValue(response.body(), new TypeReference<List<ChainAbuseReport>>() {});
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            throw e;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * Non-blocking lookup built on HttpClient.sendAsync.
+     * No thread is held while waiting for rate limit tokens, concurrency permits or the response.
+     * Failures complete the future with the underlying exception (usually an IOException).
+     * Cancelling the returned future cancels whatever the lookup is waiting on: a rate limit
+     * token, a concurrency permit or the HTTP exchange itself.
+     */
+    @Override
+    public CompletableFuture<AddressResponse> checkAddressAsync(String address) {
+        if (!AddressValidator.isValid(address)) {
+            return CompletableFuture.failedFuture(new IOException("Not a valid Bitcoin address: " + address));
+        }
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(baseUrl + "/reports?address=" + address))
+                .header("authorization", apiKey)
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+
+        CompletableFuture<AddressResponse> result = new CompletableFuture<>();
+        Stages stages = new Stages(result);
+        result.whenComplete((response, error) -> {
+            if (result.isCancelled()) {
+                stages.cancel();
+            }
+        });
+        sendWithRateLimit(request, address, 0, stages).whenComplete((response, error) -> {
+            if (error == null) {
+                result.complete(response);
+            } else if (!result.isCancelled()) {
+                Throwable cause = unwrap(error);
+                System.err.println("Error checking address " + address + ": " + cause.getMessage());
+                result.completeExceptionally(cause);
+            }
+        });
+        return result;
+    }
+
+    private HttpResponse.BodySubscriber<AddressResponse> handleBody(HttpResponse.ResponseInfo responseInfo) {
+        int statusCode = responseInfo.statusCode();
+        if (statusCode == 200) {
+            return HttpResponse.BodySubscribers.mapping(countReports(), count -> {
                 AddressResponse addressResponse = new AddressResponse();
-                addressResponse.setReports(reports);
+                addressResponse.setTotalReports(count);
                 return addressResponse;
-            }else if (response.statusCode() == 404) {
-                // Address not found in database, return empty response
-                return new AddressResponse();
-            } else {
-                throw new IOException("API request failed with status code: " +
-                        response.statusCode() + ", body: " + response.body());
+            });
+        } else if (statusCode == 404) {
+            // Address not found in database, return empty response
+            AddressResponse addressResponse = new AddressResponse();
+            addressResponse.setFound(false);
+            return HttpResponse.BodySubscribers.replacing(addressResponse);
+        } else if (statusCode == STATUS_TOO_MANY_REQUESTS) {
+            // Retried by sendWithRateLimit, body is not needed
+            return HttpResponse.BodySubscribers.replacing(null);
+        } else {
+            return HttpResponse.BodySubscribers.mapping(HttpResponse.BodySubscribers.ofString(StandardCharsets.UTF_8),
+                    body -> {
+                        throw new UncheckedIOException(new IOException(
+                                "API request failed with status code: " + statusCode + ", body: " + body));
+                    });
+        }
+    }
+
+    private HttpResponse.BodySubscriber<Integer> countReports() {
+        if (!logRawResponses) {
+            return reportParser.countingSubscriber();
+        }
+        return HttpResponse.BodySubscribers.mapping(HttpResponse.BodySubscribers.ofByteArray(), raw -> {
+            System.out.println("Raw response: " + new String(raw, StandardCharsets.UTF_8));
+            try {
+                return reportParser.countReports(raw);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
             }
-        } catch (Exception e) {
-            System.err.println("Error checking address " + address + ": " + e.getMessage());
-            throw e;
+        });
+    }
+
+    private CompletableFuture<AddressResponse> sendWithRateLimit(HttpRequest request, String address, int attempt,
+                                                                 Stages stages) {
+        return stages.await(rateLimiter.acquireAsync())
+                .thenCompose(ignored -> stages.await(concurrencyLimiter.acquireAsync()))
+                .thenCompose(ignored -> send(request, stages))
+                .thenCompose(response -> {
+                    if (response.statusCode() != STATUS_TOO_MANY_REQUESTS) {
+                        rateLimiter.onSuccess();
+                        concurrencyLimiter.onSuccess();
+                        return CompletableFuture.completedFuture(response.body());
+                    }
+
+                    rateLimiter.onThrottle();
+                    concurrencyLimiter.onThrottle();
+                    if (attempt >= maxRetries) {
+                        return CompletableFuture.failedFuture(new IOException(
+                                "API request failed with status code: " + STATUS_TOO_MANY_REQUESTS +
+                                        " after " + (attempt + 1) + " attempts"));
+                    }
+                    Duration delay = retryDelay(response, attempt);
+                    rateLimiter.pauseFor(delay);
+                    System.err.println("Rate limited checking " + address + ", retrying in " + delay.toMillis() + " ms");
+                    return sendWithRateLimit(request, address, attempt + 1, stages);
+                });
+    }
+
+    /**
+     * One HTTP exchange, timed from send to fully parsed body. The caller holds a concurrency
+     * permit, which is released when the exchange ends, however it ends.
+     */
+    private CompletableFuture<HttpResponse<AddressResponse>> send(HttpRequest request, Stages stages) {
+        ScanMetrics metrics = ScanMetrics.getInstance();
+        // Error statuses fail the body mapping, so the status is captured when the headers arrive
+        int[] status = new int[1];
+        long start = System.nanoTime();
+        metrics.apiRequestStarted();
+        // Registered before the completion handler, so a cancel aborts the exchange itself
+        CompletableFuture<HttpResponse<AddressResponse>> exchange = stages.await(
+                httpClient.sendAsync(request, responseInfo -> {
+                    status[0] = responseInfo.statusCode();
+                    return handleBody(responseInfo);
+                }));
+        return exchange.whenComplete((response, error) -> {
+            concurrencyLimiter.release();
+            metrics.apiRequestFinished(System.nanoTime() - start, status[0]);
+        });
+    }
+
+    /**
+     * The stage a lookup is currently waiting on, so that cancelling the lookup can cancel it.
+     * A stage registered after the lookup was cancelled is cancelled straight away.
+     */
+    private static class Stages {
+        private final CompletableFuture<?> lookup;
+        // No lock: cancelling runs completion handlers, which may register stages of other lookups
+        private volatile CompletableFuture<?> current;
+
+        Stages(CompletableFuture<?> lookup) {
+            this.lookup = lookup;
+        }
+
+        <T> CompletableFuture<T> await(CompletableFuture<T> stage) {
+            current = stage;
+            // The lookup is marked cancelled before cancel() runs, so one of the two always sees the other
+            if (lookup.isCancelled()) {
+                stage.cancel(true);
+            }
+            return stage;
+        }
+
+        void cancel() {
+            CompletableFuture<?> stage = current;
+            if (stage != null) {
+                // HttpClient aborts the exchange when its future is cancelled with interruption
+                stage.cancel(true);
+            }
+        }
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        Throwable cause = error;
+        while ((cause instanceof CompletionException || cause instanceof UncheckedIOException)
+                && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    /**
+     * Delay requested by the Retry-After header (seconds or HTTP date),
+     * falling back to exponential backoff with jitter when it is missing.
+     */
+    private Duration retryDelay(HttpResponse<?> response, int attempt) {
+        Optional<String> retryAfter = response.headers().firstValue("Retry-After");
+        if (retryAfter.isPresent()) {
+            String value = retryAfter.get().trim();
+            try {
+                return clamp(Duration.ofSeconds(Long.parseLong(value)));
+            } catch (NumberFormatException e) {
+                try {
+                    ZonedDateTime retryAt = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME);
+                    return clamp(Duration.between(ZonedDateTime.now(retryAt.getZone()), retryAt));
+                } catch (DateTimeParseException ignored) {
+                    // Fall through to exponential backoff
+                }
+            }
+        }
+        long baseMillis = 1000L << Math.min(attempt, 6);
+        return clamp(Duration.ofMillis(baseMillis + ThreadLocalRandom.current().nextLong(baseMillis / 2 + 1)));
+    }
+
+    private static Duration clamp(Duration delay) {
+        if (delay.isNegative()) {
+            return Duration.ZERO;
         }
+        return delay.compareTo(MAX_RETRY_DELAY) > 0 ? MAX_RETRY_DELAY : delay;
     }
-}
\ No newline at end of file
+}
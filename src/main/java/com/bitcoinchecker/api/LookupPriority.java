@@ -0,0 +1,23 @@
+package com.bitcoinchecker.api;
+
+/**
+ * Scheduling lanes for address lookups, with their weight in the fair share.
+ * - INTERACTIVE: single addresses entered by the user, expected back within about a second
+ * - SCHEDULED: background rescans from the watchlist monitor
+ * - BULK: full scans of the address list (imports)
+ */
+public enum LookupPriority {
+    INTERACTIVE(16),
+    SCHEDULED(4),
+    BULK(1);
+
+    private final int weight;
+
+    LookupPriority(int weight) {
+        this.weight = weight;
+    }
+
+    public int getWeight() {
+        return weight;
+    }
+}
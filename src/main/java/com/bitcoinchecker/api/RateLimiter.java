@@ -0,0 +1,161 @@
+package com.bitcoinchecker.api;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket rate limiter shared by all API calls.
+ * Features:
+ * - Configurable rate (permits per second) and burst size
+ * - Global pause for Retry-After windows
+ * - AIMD rate adaptation: halves on throttling, ramps back up on success
+ * Waiting requests are queued FIFO and released by a timer at the current rate,
+ * so no thread is held while waiting and rate changes apply to queued requests immediately.
+ * Cancelled waiters are skipped without spending a token.
+ */
+public class RateLimiter {
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final long DECREASE_COOLDOWN_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final double MIN_RATE_FRACTION = 0.05;
+    private static final double INCREASE_FRACTION = 0.05;
+
+    private final Queue<CompletableFuture<Void>> waiters = new ArrayDeque<>();
+    private final double maxRate;
+    private final double minRate;
+    private final double burst;
+    private double rate;
+    private double tokens;
+    private long lastRefill;
+    private long lastDecrease;
+    private boolean drainScheduled;
+
+    public RateLimiter(double permitsPerSecond, int burst) {
+        if (permitsPerSecond <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("Rate and burst must be positive");
+        }
+        this.maxRate = permitsPerSecond;
+        this.minRate = permitsPerSecond * MIN_RATE_FRACTION;
+        this.burst = burst;
+        this.rate = permitsPerSecond;
+        this.tokens = burst;
+        this.lastRefill = System.nanoTime();
+        this.lastDecrease = lastRefill - DECREASE_COOLDOWN_NANOS;
+    }
+
+    /**
+     * Returns a future that completes when the caller may send one request.
+     */
+    public CompletableFuture<Void> acquireAsync() {
+        synchronized (this) {
+            long now = System.nanoTime();
+            refill(now);
+            dropCancelledWaiters();
+            if (waiters.isEmpty() && tokens >= 1) {
+                tokens -= 1;
+                return CompletableFuture.completedFuture(null);
+            }
+            CompletableFuture<Void> waiter = new CompletableFuture<>();
+            waiters.add(waiter);
+            scheduleDrain(now);
+            return waiter;
+        }
+    }
+
+    /**
+     * Stops handing out permits until the given delay has passed (Retry-After).
+     */
+    public synchronized void pauseFor(Duration delay) {
+        long until = System.nanoTime() + delay.toNanos();
+        if (until > lastRefill) {
+            tokens = Math.min(tokens, 0);
+            lastRefill = until;
+        }
+    }
+
+    public synchronized void onSuccess() {
+        rate = Math.min(maxRate, rate + maxRate * INCREASE_FRACTION);
+    }
+
+    public synchronized void onThrottle() {
+        long now = System.nanoTime();
+        if (now - lastDecrease >= DECREASE_COOLDOWN_NANOS) {
+            refill(now);
+            rate = Math.max(minRate, rate / 2);
+            lastDecrease = now;
+        }
+    }
+
+    public synchronized double getRate() {
+        return rate;
+    }
+
+    public synchronized int getQueueLength() {
+        return waiters.size();
+    }
+
+    private void drain() {
+        List<CompletableFuture<Void>> granted = new ArrayList<>();
+        synchronized (this) {
+            drainScheduled = false;
+            long now = System.nanoTime();
+            refill(now);
+            while (tokens >= 1 && !waiters.isEmpty()) {
+                CompletableFuture<Void> waiter = waiters.poll();
+                if (!waiter.isDone()) {
+                    tokens -= 1;
+                    granted.add(waiter);
+                }
+            }
+            dropCancelledWaiters();
+            if (!waiters.isEmpty()) {
+                scheduleDrain(now);
+            }
+        }
+        int unused = 0;
+        for (CompletableFuture<Void> waiter : granted) {
+            if (!waiter.complete(null)) {
+                // Cancelled after it was granted
+                unused++;
+            }
+        }
+        if (unused > 0) {
+            refund(unused);
+        }
+    }
+
+    private synchronized void refund(int permits) {
+        tokens = Math.min(burst, tokens + permits);
+        if (!waiters.isEmpty()) {
+            scheduleDrain(System.nanoTime());
+        }
+    }
+
+    // Called with the monitor held
+    private void dropCancelledWaiters() {
+        while (!waiters.isEmpty() && waiters.peek().isDone()) {
+            waiters.poll();
+        }
+    }
+
+    // Called with the monitor held
+    private void scheduleDrain(long now) {
+        if (drainScheduled) {
+            return;
+        }
+        drainScheduled = true;
+        long wait = Math.max(lastRefill - now, 0) + (long) (Math.max(1 - tokens, 0) / rate * NANOS_PER_SECOND);
+        CompletableFuture.delayedExecutor(wait, TimeUnit.NANOSECONDS).execute(this::drain);
+    }
+
+    private void refill(long now) {
+        if (now > lastRefill) {
+            tokens = Math.min(burst, tokens + (now - lastRefill) * rate / NANOS_PER_SECOND);
+            lastRefill = now;
+        }
+    }
+}
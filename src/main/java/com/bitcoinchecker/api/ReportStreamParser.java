@@ -0,0 +1,179 @@
+package com.bitcoinchecker.api;
+
+import com.bitcoinchecker.api.response.ChainAbuseReport;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+
+/**
+ * Streaming parser for ChainAbuse report lists.
+ * Walks the JSON array token by token and skips over each report,
+ * so counting thousands of reports allocates no report objects or tree nodes.
+ * Uses a single immutable, thread-safe ObjectReader shared by all calls.
+ * The body subscriber variant feeds response chunks into Jackson's
+ * non-blocking parser as they arrive, for use with HttpClient.sendAsync.
+ */
+public class ReportStreamParser {
+    private final ObjectReader reader;
+
+    public ReportStreamParser(ObjectMapper objectMapper) {
+        this.reader = objectMapper.readerFor(ChainAbuseReport.class);
+    }
+
+    public int countReports(InputStream body) throws IOException {
+        try (JsonParser parser = reader.createParser(body)) {
+            return countReports(parser);
+        }
+    }
+
+    public int countReports(byte[] body) throws IOException {
+        try (JsonParser parser = reader.createParser(body)) {
+            return countReports(parser);
+        }
+    }
+
+    public HttpResponse.BodySubscriber<Integer> countingSubscriber() {
+        try {
+            return new CountingSubscriber(reader.createNonBlockingByteArrayParser());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private int countReports(JsonParser parser) throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == null) {
+            return 0;
+        }
+        if (token != JsonToken.START_ARRAY) {
+            throw new IOException("Unexpected response, expected a JSON array but got " + token);
+        }
+        int count = 0;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token == null) {
+                throw new IOException("Unexpected end of response after " + count + " reports");
+            }
+            parser.skipChildren();
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Counts top-level array elements from pushed byte chunks.
+     * Tracks nesting depth instead of skipChildren(), which needs the whole value buffered.
+     */
+    private static class CountingSubscriber implements HttpResponse.BodySubscriber<Integer> {
+        private final JsonParser parser;
+        private final ByteArrayFeeder feeder;
+        private final CompletableFuture<Integer> result = new CompletableFuture<>();
+        private byte[] chunk = new byte[8192];
+        private Flow.Subscription subscription;
+        private boolean started;
+        private boolean finished;
+        private int depth;
+        private int count;
+
+        CountingSubscriber(JsonParser parser) {
+            this.parser = parser;
+            this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+        }
+
+        @Override
+        public CompletionStage<Integer> getBody() {
+            return result;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(1);
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> buffers) {
+            try {
+                for (ByteBuffer buffer : buffers) {
+                    int length = buffer.remaining();
+                    if (chunk.length < length) {
+                        chunk = new byte[length];
+                    }
+                    buffer.get(chunk, 0, length);
+                    feeder.feedInput(chunk, 0, length);
+                    drainTokens();
+                }
+                subscription.request(1);
+            } catch (IOException e) {
+                subscription.cancel();
+                fail(e);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            fail(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            try {
+                feeder.endOfInput();
+                drainTokens();
+                if (started && !finished) {
+                    throw new IOException("Unexpected end of response after " + count + " reports");
+                }
+                parser.close();
+                result.complete(count);
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+
+        private void drainTokens() throws IOException {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                if (!started) {
+                    if (token != JsonToken.START_ARRAY) {
+                        throw new IOException("Unexpected response, expected a JSON array but got " + token);
+                    }
+                    started = true;
+                    depth = 1;
+                    continue;
+                }
+                if (token.isStructEnd()) {
+                    depth--;
+                    if (depth == 0) {
+                        finished = true;
+                    }
+                    continue;
+                }
+                if (depth == 1) {
+                    count++;
+                }
+                if (token.isStructStart()) {
+                    depth++;
+                }
+            }
+        }
+
+        private void fail(Throwable throwable) {
+            try {
+                parser.close();
+            } catch (IOException ignored) {
+                // Parser holds no external resources
+            }
+            result.completeExceptionally(throwable);
+        }
+    }
+}
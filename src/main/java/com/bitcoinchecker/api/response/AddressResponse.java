@@ -12,17 +12,33 @@ import java.util.List;
  * - Inner classes for report details and addresses
  * - JSON deserialization with ignored unknown fields
  * - Report counting functionality
+ * - Found flag distinguishing 404 answers from clean addresses
  * Acts as container DTO between API and app layers.
  */
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class AddressResponse {
     private List<ChainAbuseReport> reports = new ArrayList<>();
+    private int totalReports;
+    private boolean found = true;
 
     public void setReports(List<ChainAbuseReport> reports) {
         this.reports = reports;
+        this.totalReports = reports.size();
     }
 
     public int getTotalReports() {
-        return reports.size();
+        return totalReports;
+    }
+
+    public void setTotalReports(int totalReports) {
+        this.totalReports = totalReports;
+    }
+
+    public boolean isFound() {
+        return found;
+    }
+
+    public void setFound(boolean found) {
+        this.found = found;
     }
 }
\ No newline at end of file
@@ -0,0 +1,41 @@
+package com.bitcoinchecker.cache;
+
+import com.bitcoinchecker.api.response.AddressResponse;
+
+/**
+ * Cached outcome of a single address lookup.
+ * Stores:
+ * - Number of abuse reports
+ * - Whether the API knew the address (false for 404 answers)
+ * - Time of the lookup in epoch milliseconds
+ */
+public class CacheEntry {
+    private final int reportCount;
+    private final boolean found;
+    private final long lastChecked;
+
+    public CacheEntry(int reportCount, boolean found, long lastChecked) {
+        this.reportCount = reportCount;
+        this.found = found;
+        this.lastChecked = lastChecked;
+    }
+
+    public int getReportCount() {
+        return reportCount;
+    }
+
+    public boolean isFound() {
+        return found;
+    }
+
+    public long getLastChecked() {
+        return lastChecked;
+    }
+
+    public AddressResponse toResponse() {
+        AddressResponse response = new AddressResponse();
+        response.setTotalReports(reportCount);
+        response.setFound(found);
+        return response;
+    }
+}
@@ -0,0 +1,126 @@
+package com.bitcoinchecker.cache;
+
+import com.bitcoinchecker.api.AddressLookup;
+import com.bitcoinchecker.api.LookupPriority;
+import com.bitcoinchecker.api.response.AddressResponse;
+import com.bitcoinchecker.db.DatabaseManager;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Two-tier caching decorator for address lookups.
+ * Features:
+ * - Bounded in-memory LRU tier
+ * - Persistent SQLite tier keyed by address with a last_checked timestamp
+ * - Separate TTLs for found addresses and negative (404) answers
+ * Failed lookups are never cached, and persistent tier errors fall back to the API.
+ * Cache hits are answered immediately; only misses reach the (scheduled) delegate.
+ */
+public class CachingAddressLookup implements AddressLookup {
+    private final AddressLookup delegate;
+    private final LruCache<String, CacheEntry> memoryCache;
+    private final long ttlMillis;
+    private final long negativeTtlMillis;
+
+    public CachingAddressLookup(AddressLookup delegate, int memoryCapacity, Duration ttl, Duration negativeTtl) {
+        this.delegate = delegate;
+        this.memoryCache = new LruCache<>(memoryCapacity);
+        this.ttlMillis = ttl.toMillis();
+        this.negativeTtlMillis = negativeTtl.toMillis();
+    }
+
+    @Override
+    public AddressResponse checkAddress(String address) throws IOException, InterruptedException {
+        return checkAddress(address, LookupPriority.BULK);
+    }
+
+    @Override
+    public AddressResponse checkAddress(String address, LookupPriority priority)
+            throws IOException, InterruptedException {
+        long now = System.currentTimeMillis();
+        CacheEntry cached = lookupCached(address, now);
+        if (cached != null) {
+            return cached.toResponse();
+        }
+
+        AddressResponse response = delegate.checkAddress(address, priority);
+        store(address, new CacheEntry(response.getTotalReports(), response.isFound(), now));
+        return response;
+    }
+
+    @Override
+    public CompletableFuture<AddressResponse> checkAddressAsync(String address) {
+        return checkAddressAsync(address, LookupPriority.BULK);
+    }
+
+    @Override
+    public CompletableFuture<AddressResponse> checkAddressAsync(String address, LookupPriority priority) {
+        long now = System.currentTimeMillis();
+        CacheEntry cached = lookupCached(address, now);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached.toResponse());
+        }
+
+        CompletableFuture<AddressResponse> lookup = delegate.checkAddressAsync(address, priority);
+        CompletableFuture<AddressResponse> result = lookup.thenApply(response -> {
+            store(address, new CacheEntry(response.getTotalReports(), response.isFound(), now));
+            return response;
+        });
+        // Cancelling the returned future withdraws the lookup too, if it is still queued
+        result.whenComplete((response, error) -> {
+            if (result.isCancelled()) {
+                lookup.cancel(false);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Drops the address from both tiers, so the next lookup goes to the API.
+     */
+    public void invalidate(String address) {
+        memoryCache.remove(address);
+        try {
+            DatabaseManager.getInstance().deleteCacheEntry(address);
+        } catch (RuntimeException e) {
+            System.err.println("Error invalidating lookup cache for " + address + ": " + e.getMessage());
+        }
+    }
+
+    private CacheEntry lookupCached(String address, long now) {
+        CacheEntry entry = memoryCache.get(address);
+        if (isFresh(entry, now)) {
+            return entry;
+        }
+
+        try {
+            entry = DatabaseManager.getInstance().loadCacheEntry(address);
+        } catch (RuntimeException e) {
+            System.err.println("Error reading lookup cache for " + address + ": " + e.getMessage());
+            return null;
+        }
+        if (isFresh(entry, now)) {
+            memoryCache.put(address, entry);
+            return entry;
+        }
+        return null;
+    }
+
+    private void store(String address, CacheEntry entry) {
+        memoryCache.put(address, entry);
+        try {
+            DatabaseManager.getInstance().saveCacheEntry(address, entry);
+        } catch (RuntimeException e) {
+            System.err.println("Error writing lookup cache for " + address + ": " + e.getMessage());
+        }
+    }
+
+    private boolean isFresh(CacheEntry entry, long now) {
+        if (entry == null) {
+            return false;
+        }
+        long ttl = entry.isFound() ? ttlMillis : negativeTtlMillis;
+        return now - entry.getLastChecked() < ttl;
+    }
+}
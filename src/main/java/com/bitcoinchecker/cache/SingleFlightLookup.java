@@ -0,0 +1,173 @@
+package com.bitcoinchecker.cache;
+
+import com.bitcoinchecker.api.AddressLookup;
+import com.bitcoinchecker.api.LookupPriority;
+import com.bitcoinchecker.api.response.AddressResponse;
+import com.bitcoinchecker.metrics.ScanMetrics;
+import com.bitcoinchecker.model.AddressValidator;
+import java.io.IOException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Single-flight decorator: concurrent lookups of the same address share one delegate call.
+ * Features:
+ * - In-flight lookups keyed by normalized address in a ConcurrentHashMap
+ * - Later callers join the running lookup and get the same result (or failure)
+ * - A caller asking with a higher priority than the running lookup starts its own,
+ *   so an interactive lookup never waits behind a queued bulk one
+ * - Each caller gets its own future: cancelling it leaves the others unaffected, and the
+ *   shared lookup is only withdrawn once every caller has cancelled
+ * Entries are removed as soon as the lookup finishes; caching results is left to
+ * CachingAddressLookup in front of this layer.
+ */
+public class SingleFlightLookup implements AddressLookup {
+    private final AddressLookup delegate;
+    private final ConcurrentHashMap<String, Flight> inFlight = new ConcurrentHashMap<>();
+
+    public SingleFlightLookup(AddressLookup delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public AddressResponse checkAddress(String address) throws IOException, InterruptedException {
+        return checkAddress(address, LookupPriority.BULK);
+    }
+
+    @Override
+    public AddressResponse checkAddress(String address, LookupPriority priority)
+            throws IOException, InterruptedException {
+        CompletableFuture<AddressResponse> future = checkAddressAsync(address, priority);
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(false);
+            throw e;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException("Lookup failed for " + address, cause);
+        }
+    }
+
+    @Override
+    public CompletableFuture<AddressResponse> checkAddressAsync(String address) {
+        return checkAddressAsync(address, LookupPriority.BULK);
+    }
+
+    @Override
+    public CompletableFuture<AddressResponse> checkAddressAsync(String address, LookupPriority priority) {
+        String normalized = AddressValidator.normalize(address);
+        String key = normalized != null ? normalized : address;
+        while (true) {
+            Flight current = inFlight.get(key);
+            if (current == null || current.priority.getWeight() < priority.getWeight()) {
+                Flight flight = new Flight(key, priority);
+                boolean installed = current == null
+                        ? inFlight.putIfAbsent(key, flight) == null
+                        : inFlight.replace(key, current, flight);
+                if (installed) {
+                    CompletableFuture<AddressResponse> caller = flight.join();
+                    start(flight);
+                    return caller;
+                }
+                continue;
+            }
+            CompletableFuture<AddressResponse> caller = current.join();
+            if (caller != null) {
+                ScanMetrics.getInstance().lookupCoalesced();
+                return caller;
+            }
+            // Abandoned by all its callers in the meantime; start over
+            inFlight.remove(key, current);
+        }
+    }
+
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    private void start(Flight flight) {
+        CompletableFuture<AddressResponse> lookup;
+        try {
+            lookup = delegate.checkAddressAsync(flight.key, flight.priority);
+        } catch (RuntimeException e) {
+            lookup = CompletableFuture.failedFuture(e);
+        }
+        flight.attach(lookup);
+        lookup.whenComplete((response, error) -> {
+            // Unregister first, so callers arriving from now on start a fresh lookup
+            inFlight.remove(flight.key, flight);
+            if (error != null) {
+                flight.result.completeExceptionally(error);
+            } else {
+                flight.result.complete(response);
+            }
+        });
+    }
+
+    /**
+     * One shared delegate lookup and the number of callers still waiting for it.
+     */
+    private class Flight {
+        private final String key;
+        private final LookupPriority priority;
+        private final CompletableFuture<AddressResponse> result = new CompletableFuture<>();
+        private CompletableFuture<AddressResponse> lookup;
+        private int waiters;
+        private boolean abandoned;
+
+        Flight(String key, LookupPriority priority) {
+            this.key = key;
+            this.priority = priority;
+        }
+
+        /**
+         * Registers a caller, or returns null when every earlier caller has already given up.
+         */
+        synchronized CompletableFuture<AddressResponse> join() {
+            if (abandoned) {
+                return null;
+            }
+            waiters++;
+            CompletableFuture<AddressResponse> caller = result.copy();
+            caller.whenComplete((response, error) -> {
+                if (caller.isCancelled()) {
+                    leave();
+                }
+            });
+            return caller;
+        }
+
+        void attach(CompletableFuture<AddressResponse> lookup) {
+            boolean cancel;
+            synchronized (this) {
+                this.lookup = lookup;
+                cancel = abandoned;
+            }
+            if (cancel) {
+                lookup.cancel(false);
+            }
+        }
+
+        private void leave() {
+            CompletableFuture<AddressResponse> toCancel;
+            synchronized (this) {
+                if (--waiters > 0 || result.isDone()) {
+                    return;
+                }
+                abandoned = true;
+                toCancel = lookup;
+            }
+            inFlight.remove(key, this);
+            if (toCancel != null) {
+                toCancel.cancel(false);
+            }
+            result.completeExceptionally(new CancellationException("All callers cancelled"));
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.bitcoinchecker.cli;
+
+import com.bitcoinchecker.db.DatabaseManager;
+import com.bitcoinchecker.db.ScanResultWriter;
+import com.bitcoinchecker.metrics.ScanMetrics;
+import com.bitcoinchecker.model.AddressScannerModel;
+import com.bitcoinchecker.model.BitcoinAddress;
+import com.bitcoinchecker.observer.ScanObserver;
+import com.bitcoinchecker.util.Config;
+import com.bitcoinchecker.util.Logger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Headless batch scanner for cron and server use, with no Swing or POI on the path.
+ * Streams addresses (one per line) from a file or stdin, scans them through the same
+ * AddressScannerModel / ChainAbuseClient pipeline as the GUI, writes each result as a
+ * CSV line as soon as it arrives and prints a summary and a metrics dump to stderr.
+ *
+ * Usage: HeadlessScanner [--output file] [address-file | -]
+ *
+ * Exit codes:
+ * - 0: every address scanned, none has abuse reports
+ * - 1: every address scanned, at least one has abuse reports
+ * - 2: at least one lookup failed, or the scan did not run to the end
+ * - 64: invalid command line
+ * - 74: input or output could not be read or written
+ */
+public class HeadlessScanner implements ScanObserver {
+    static final int EXIT_CLEAN = 0;
+    static final int EXIT_FLAGGED = 1;
+    static final int EXIT_FAILURES = 2;
+    static final int EXIT_USAGE = 64;
+    static final int EXIT_IO_ERROR = 74;
+
+    private static final String USAGE = "Usage: HeadlessScanner [--output file] [address-file | -]";
+
+    private final PrintWriter out;
+    private final AtomicInteger scanned = new AtomicInteger();
+    private final AtomicInteger flagged = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final AtomicInteger skipped = new AtomicInteger();
+    private volatile Exception scanFailure;
+
+    HeadlessScanner(PrintWriter out) {
+        this.out = out;
+    }
+
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        System.exit(run(args));
+    }
+
+    static int run(String[] args) {
+        String input = "-";
+        String output = null;
+        for (int i = 0; i < args.length; i++) {
+            if ("--output".equals(args[i]) || "-o".equals(args[i])) {
+                if (++i >= args.length) {
+                    System.err.println(USAGE);
+                    return EXIT_USAGE;
+                }
+                output = args[i];
+            } else if ("--help".equals(args[i]) || "-h".equals(args[i])) {
+                System.err.println(USAGE);
+                return EXIT_CLEAN;
+            } else if (args[i].startsWith("-") && !"-".equals(args[i])) {
+                System.err.println("Unknown option: " + args[i]);
+                System.err.println(USAGE);
+                return EXIT_USAGE;
+            } else {
+                input = args[i];
+            }
+        }
+
+        try (PrintWriter out = openOutput(output)) {
+            return new HeadlessScanner(out).scan(input);
+        } catch (IOException e) {
+            System.err.println("I/O error: " + e.getMessage());
+            return EXIT_IO_ERROR;
+        }
+    }
+
+    private static PrintWriter openOutput(String output) throws IOException {
+        if (output == null) {
+            return new PrintWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), true);
+        }
+        return new PrintWriter(Files.newBufferedWriter(Paths.get(output), StandardCharsets.UTF_8));
+    }
+
+    private static BufferedReader openInput(String input) throws IOException {
+        if ("-".equals(input)) {
+            return new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+        }
+        return Files.newBufferedReader(Paths.get(input), StandardCharsets.UTF_8);
+    }
+
+    int scan(String input) throws IOException {
+        long start = System.nanoTime();
+        DatabaseManager database = DatabaseManager.getInstance();
+        Config config = Config.getInstance();
+        ScanResultWriter resultWriter = new ScanResultWriter(database,
+                config.getDbWriteQueueCapacity(), config.getDbWriteBatchSize(), config.getDbWriteFlushMillis());
+        AddressScannerModel model = new AddressScannerModel();
+        ScanMetrics.getInstance().registerMBean();
+
+        try (BufferedReader reader = openInput(input)) {
+            // Lines are pulled as lookup slots free up, so the input is never held in memory;
+            // the model validates them and reports invalid ones through onAddressSkipped
+            Iterator<String> addresses = reader.lines().iterator();
+
+            out.println("address,abuse_count,report_url");
+            model.addObserver(resultWriter);
+            model.addObserver(this);
+            model.scanAddresses(addresses).join();
+            out.flush();
+            if (out.checkError()) {
+                throw new IOException("Failed to write results");
+            }
+
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.err.printf("Scanned %d addresses in %.1fs: %d with abuse reports, %d failed, %d invalid skipped%n",
+                    scanned.get(), seconds, flagged.get(), failed.get(), skipped.get());
+            System.err.println(ScanMetrics.getInstance().dump());
+        } finally {
+            model.shutdown();
+            resultWriter.close();
+            database.close();
+            Logger.getInstance().close();
+        }
+
+        if (failed.get() > 0 || scanFailure != null) {
+            return EXIT_FAILURES;
+        }
+        return flagged.get() > 0 ? EXIT_FLAGGED : EXIT_CLEAN;
+    }
+
+    @Override
+    public void onScanStarted() {
+    }
+
+    @Override
+    public void onAddressScanned(BitcoinAddress address) {
+        scanned.incrementAndGet();
+        if (address.getAbuseCount() > 0) {
+            flagged.incrementAndGet();
+        }
+        synchronized (out) {
+            out.println(address.getAddress() + "," + address.getAbuseCount() + "," + address.getReportUrl());
+        }
+    }
+
+    @Override
+    public void onScanCompleted(List<BitcoinAddress> results) {
+    }
+
+    @Override
+    public void onAddressFailed(BitcoinAddress address, Exception e) {
+        failed.incrementAndGet();
+        System.err.println("Lookup failed for " + address.getAddress() + ": " + e.getMessage());
+    }
+
+    @Override
+    public void onAddressSkipped(String input) {
+        skipped.incrementAndGet();
+    }
+
+    @Override
+    public void onScanFailed(Exception e) {
+        scanFailure = e;
+        System.err.println("Scan failed: " + e.getMessage());
+    }
+}
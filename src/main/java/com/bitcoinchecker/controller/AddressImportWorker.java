@@ -0,0 +1,152 @@
+package com.bitcoinchecker.controller;
+
+import com.bitcoinchecker.db.DatabaseManager;
+import com.bitcoinchecker.model.AddressListTableModel;
+import com.bitcoinchecker.model.AddressStore;
+import com.bitcoinchecker.model.AddressValidator;
+
+import javax.swing.*;
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Background import of address files.
+ * Features:
+ * - Streams the file line by line instead of loading it whole
+ * - Validates and normalizes every line, skipping invalid entries
+ * - Deduplicates against a hash index of known addresses
+ * - Persists each chunk in one transaction and appends it to the table with one event
+ * - Reports progress (percent of bytes read) and stops promptly when cancelled
+ * Chunks committed before a cancel stay imported.
+ */
+public class AddressImportWorker extends SwingWorker<AddressImportWorker.ImportSummary, Void> {
+    private static final int CHUNK_SIZE = 10_000;
+    private static final int READ_BUFFER_SIZE = 1 << 16;
+
+    private final Path file;
+    private final AddressListTableModel addressesModel;
+    private final AddressStore knownAddresses;
+
+    /**
+     * Must be created on the EDT, since it snapshots the table's address index.
+     */
+    public AddressImportWorker(Path file, AddressListTableModel addressesModel) {
+        this.file = file;
+        this.addressesModel = addressesModel;
+        this.knownAddresses = addressesModel.getAddressIndexSnapshot();
+    }
+
+    @Override
+    protected ImportSummary doInBackground() throws IOException {
+        long totalBytes = Math.max(Files.size(file), 1);
+        int imported = 0;
+        int duplicates = 0;
+        int invalid = 0;
+
+        try (CountingInputStream in = new CountingInputStream(Files.newInputStream(file));
+             BufferedReader reader = new BufferedReader(
+                     new InputStreamReader(in, StandardCharsets.UTF_8), READ_BUFFER_SIZE)) {
+            List<String> chunk = new ArrayList<>(CHUNK_SIZE);
+            String line;
+            while (!isCancelled() && (line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                String address = AddressValidator.normalize(line);
+                if (address == null) {
+                    invalid++;
+                    continue;
+                }
+                if (!knownAddresses.addIfAbsent(address)) {
+                    duplicates++;
+                    continue;
+                }
+                chunk.add(address);
+                if (chunk.size() == CHUNK_SIZE) {
+                    imported += commit(chunk);
+                    chunk = new ArrayList<>(CHUNK_SIZE);
+                    setProgress((int) Math.min(99, in.getCount() * 100 / totalBytes));
+                }
+            }
+            if (!isCancelled()) {
+                imported += commit(chunk);
+                setProgress(100);
+            }
+        }
+        return new ImportSummary(imported, duplicates, invalid);
+    }
+
+    private int commit(List<String> chunk) {
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+        DatabaseManager.getInstance().saveAddresses(chunk);
+        SwingUtilities.invokeLater(() -> addressesModel.appendAddresses(chunk));
+        return chunk.size();
+    }
+
+    /**
+     * Outcome of an import run.
+     */
+    public static class ImportSummary {
+        private final int imported;
+        private final int duplicates;
+        private final int invalid;
+
+        ImportSummary(int imported, int duplicates, int invalid) {
+            this.imported = imported;
+            this.duplicates = duplicates;
+            this.invalid = invalid;
+        }
+
+        public int getImported() {
+            return imported;
+        }
+
+        public int getDuplicates() {
+            return duplicates;
+        }
+
+        public int getInvalid() {
+            return invalid;
+        }
+    }
+
+    private static class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+
+        long getCount() {
+            return count;
+        }
+    }
+}
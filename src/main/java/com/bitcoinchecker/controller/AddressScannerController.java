@@ -1,38 +1,62 @@
 package com.bitcoinchecker.controller;
 
 import com.bitcoinchecker.db.DatabaseManager;
+import com.bitcoinchecker.db.ScanJobCheckpointer;
+import com.bitcoinchecker.db.ScanResultWriter;
 import com.bitcoinchecker.model.AddressListTableModel;
 import com.bitcoinchecker.model.AddressScannerModel;
+import com.bitcoinchecker.model.AddressStore;
 import com.bitcoinchecker.model.AddressTableModel;
-import com.bitcoinchecker.model.BitcoinAddress;
+import com.bitcoinchecker.model.AddressValidator;
+import com.bitcoinchecker.util.CsvExporter;
 import com.bitcoinchecker.util.ExcelExporter;
+import com.bitcoinchecker.util.Logger;
+import com.bitcoinchecker.util.NdjsonExporter;
+import com.bitcoinchecker.util.ResultExporter;
 import com.bitcoinchecker.view.AddressScannerView;
 
 import javax.swing.*;
-import java.io.IOException;
-import java.nio.file.Files;
+import javax.swing.filechooser.FileFilter;
+import java.io.File;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 /**
  * Controller component implementing MVC pattern.
  * Handles:
  * - User interactions (button clicks)
- * - File operations
- * - Scan coordination between models
+ * - Address validation before anything is stored or scanned
+ * - File operations (background import and Excel/CSV/NDJSON export with progress and cancel)
+ * - Scan coordination between models, with checkpointed jobs that can be resumed
  * - Error handling and user notifications
  */
 public class AddressScannerController {
+    private static final List<ExportFormat> EXPORT_FORMATS = List.of(
+            new ExportFormat("Excel workbook (*.xlsx)", new ExcelExporter()),
+            new ExportFormat("CSV (*.csv)", new CsvExporter(false)),
+            new ExportFormat("CSV, gzip compressed (*.csv.gz)", new CsvExporter(true)),
+            new ExportFormat("JSON lines (*.ndjson)", new NdjsonExporter(false)),
+            new ExportFormat("JSON lines, gzip compressed (*.ndjson.gz)", new NdjsonExporter(true)));
+
     private final AddressScannerModel model;
     private final AddressScannerView view;
     private final AddressTableModel tableModel;
     private final AddressListTableModel addressesModel;
+    private final ScanResultWriter resultWriter;
+    private final ScanJobCheckpointer checkpointer;
 
     public AddressScannerController(AddressScannerModel model, AddressScannerView view,
-                                    AddressTableModel tableModel, AddressListTableModel addressesModel) {
+                                    AddressTableModel tableModel, AddressListTableModel addressesModel,
+                                    ScanResultWriter resultWriter, ScanJobCheckpointer checkpointer) {
         this.model = model;
         this.view = view;
         this.tableModel = tableModel;
         this.addressesModel = addressesModel;
+        this.resultWriter = resultWriter;
+        this.checkpointer = checkpointer;
         initializeController();
     }
 
@@ -41,30 +65,219 @@ public class AddressScannerController {
         view.getUploadButton().addActionListener(e -> handleFileUpload());
         view.getClearButton().addActionListener(e -> handleClear());
         view.getScanButton().addActionListener(e -> handleScan());
+        view.getCancelButton().addActionListener(e -> handleCancelScan());
         view.getSaveButton().addActionListener(e -> handleSave());
     }
 
     private void handleSave() {
-        List<BitcoinAddress> addresses = tableModel.getAddresses();
-        if (addresses.isEmpty()) {
+        if (tableModel.getTotalRowCount() == 0) {
             JOptionPane.showMessageDialog(view, "No scan results to export.");
             return;
         }
-        ExcelExporter.exportToExcel(addresses, view);
+
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setDialogTitle("Export Scan Results");
+        fileChooser.setAcceptAllFileFilterUsed(false);
+        for (ExportFormat format : EXPORT_FORMATS) {
+            fileChooser.addChoosableFileFilter(format.filter);
+        }
+        fileChooser.setFileFilter(EXPORT_FORMATS.get(0).filter);
+        fileChooser.setSelectedFile(new File("scan_results.xlsx"));
+        if (fileChooser.showSaveDialog(view) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        File chosen = fileChooser.getSelectedFile();
+        // A typed extension wins over the selected filter; otherwise the filter's extension is appended
+        ExportFormat format = EXPORT_FORMATS.stream()
+                .filter(f -> f.filter.accept(chosen) && !chosen.isDirectory())
+                .findFirst()
+                .orElse(EXPORT_FORMATS.stream()
+                        .filter(f -> f.filter == fileChooser.getFileFilter())
+                        .findFirst()
+                        .orElse(EXPORT_FORMATS.get(0)));
+        String extension = "." + format.exporter.getFileExtension();
+        File file = chosen.getName().endsWith(extension) ? chosen : new File(chosen.getAbsolutePath() + extension);
+
+        File target = file;
+        ResultExportWorker worker = new ResultExportWorker(format.exporter, target.toPath(), resultWriter);
+        ProgressMonitor monitor = new ProgressMonitor(view, "Exporting " + target.getName(), null, 0, 100);
+        monitor.setMillisToDecideToPopup(200);
+        view.getSaveButton().setEnabled(false);
+
+        worker.addPropertyChangeListener(event -> {
+            if ("progress".equals(event.getPropertyName())) {
+                monitor.setProgress((Integer) event.getNewValue());
+                if (monitor.isCanceled()) {
+                    worker.cancel(false);
+                }
+            } else if ("state".equals(event.getPropertyName())
+                    && event.getNewValue() == SwingWorker.StateValue.DONE) {
+                monitor.close();
+                view.getSaveButton().setEnabled(true);
+                reportExport(worker, target);
+            }
+        });
+        worker.execute();
+    }
+
+    private void reportExport(ResultExportWorker worker, File file) {
+        if (worker.isCancelled()) {
+            JOptionPane.showMessageDialog(view, "Export cancelled.");
+            return;
+        }
+        try {
+            if (worker.get() < 0) {
+                JOptionPane.showMessageDialog(view, "Export cancelled.");
+                return;
+            }
+            JOptionPane.showMessageDialog(view,
+                    "Results exported successfully to:\n" + file.getAbsolutePath(),
+                    "Export Complete",
+                    JOptionPane.INFORMATION_MESSAGE);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            JOptionPane.showMessageDialog(view,
+                    "Error exporting file: " + e.getCause().getMessage(),
+                    "Export Error",
+                    JOptionPane.ERROR_MESSAGE);
+        }
     }
 
     private void handleScan() {
-        List<String> addresses = addressesModel.getAddresses();
-        if (addresses.isEmpty()) {
+        if (addressesModel.getRowCount() == 0) {
             JOptionPane.showMessageDialog(view, "No addresses to scan.");
             return;
         }
+        if (model.isScanning()) {
+            return;
+        }
+        view.getScanButton().setEnabled(false);
+        // A copy of the compact store (a few arrays, no String per address) that the scan can
+        // iterate off the EDT while the list goes on changing
+        AddressStore addresses = addressesModel.getAddressSnapshot();
 
-        model.clearAddresses();
-        addresses.forEach(model::addAddress);
+        // An interrupted job can hold up to the whole address list, so look it up off the EDT
+        DatabaseManager database = DatabaseManager.getInstance();
+        CompletableFuture.supplyAsync(() -> {
+            Long unfinishedJob = database.findUnfinishedScanJob();
+            if (unfinishedJob == null) {
+                return null;
+            }
+            // Jobs written before addresses were normalized may hold other forms; rewrite those rows
+            // so the checkpoints of the normalized addresses dispatched on resume match them
+            Map<String, String> renamed = new HashMap<>();
+            AddressStore remaining = new AddressStore(false);
+            database.forEachUnfinishedJobAddress(unfinishedJob, address -> addToJob(remaining, address, renamed));
+            if (!renamed.isEmpty()) {
+                database.renameScanJobItems(unfinishedJob, renamed);
+            }
+            return new ScanJob(unfinishedJob, remaining);
+        }).whenComplete((unfinished, error) -> SwingUtilities.invokeLater(() -> {
+            if (error != null) {
+                view.getScanButton().setEnabled(true);
+                JOptionPane.showMessageDialog(view, "Error starting scan: " + error.getMessage());
+            } else {
+                startScan(addresses, unfinished);
+            }
+        }));
+    }
 
-        tableModel.clear();
-        model.scanAddresses();
+    /**
+     * Asks whether to resume the interrupted job, if any, then starts the scan. Runs on the EDT.
+     */
+    private void startScan(AddressStore addresses, ScanJob unfinished) {
+        ScanJob resumeJob = null;
+        Long discardJob = null;
+        if (unfinished != null) {
+            int choice = unfinished.addresses.size() == 0 ? JOptionPane.NO_OPTION : JOptionPane.showConfirmDialog(view,
+                    String.format("A previous scan was interrupted with %d addresses left.%n"
+                            + "Resume it? (No starts a new scan of the whole list)", unfinished.addresses.size()),
+                    "Resume Scan", JOptionPane.YES_NO_CANCEL_OPTION);
+            if (choice == JOptionPane.CANCEL_OPTION || choice == JOptionPane.CLOSED_OPTION) {
+                view.getScanButton().setEnabled(true);
+                return;
+            }
+            if (choice == JOptionPane.YES_OPTION) {
+                resumeJob = unfinished;
+            } else {
+                discardJob = unfinished.jobId;
+            }
+        }
+        if (resumeJob == null) {
+            tableModel.clear();
+        }
+
+        // The snapshot is not modified after this point, and handing it to supplyAsync publishes it to
+        // the scan threads. Normalizing it, discarding the old job and creating the new one (a row per
+        // address) are kept off the EDT as well
+        DatabaseManager database = DatabaseManager.getInstance();
+        ScanJob existingJob = resumeJob;
+        Long oldJob = discardJob;
+        CompletableFuture.supplyAsync(() -> {
+                    if (existingJob != null) {
+                        return existingJob;
+                    }
+                    if (oldJob != null) {
+                        database.finishScanJob(oldJob, true);
+                    }
+                    // The job rows must be exactly the addresses dispatched, or their checkpoints
+                    // never match and the job is offered for resume forever
+                    AddressStore jobAddresses = new AddressStore(false);
+                    for (String address : addresses) {
+                        addToJob(jobAddresses, address, null);
+                    }
+                    return new ScanJob(database.createScanJob(jobAddresses), jobAddresses);
+                })
+                .thenCompose(job -> {
+                    checkpointer.beginJob(job.jobId);
+                    return model.scanAddresses(job.addresses.iterator());
+                })
+                .whenComplete((ignored, error) -> finishScanJob(error));
+    }
+
+    /**
+     * Adds the normalized form of the address to the job, dropping it if invalid (stored before
+     * validation existed). When renamed is given and the stored form differs, it is recorded
+     * there, mapped to its normalized form or to null when it was dropped.
+     */
+    private static void addToJob(AddressStore job, String address, Map<String, String> renamed) {
+        String canonical = AddressValidator.normalize(address);
+        if (canonical == null) {
+            Logger.getInstance().log("Skipping invalid address: " + address, true);
+        } else {
+            job.add(canonical);
+        }
+        if (renamed != null && !address.equals(canonical)) {
+            renamed.put(address, canonical);
+        }
+    }
+
+    /**
+     * Stops the running scan; its checkpointed job stays resumable from where it stopped.
+     */
+    private void handleCancelScan() {
+        view.getCancelButton().setEnabled(false);
+        model.cancelScan();
+    }
+
+    private void finishScanJob(Throwable error) {
+        if (error != null) {
+            System.err.println("Error starting scan: " + error.getMessage());
+            SwingUtilities.invokeLater(() -> {
+                view.getScanButton().setEnabled(true);
+                JOptionPane.showMessageDialog(view, "Error starting scan: " + error.getMessage());
+            });
+        }
+        try {
+            if (!checkpointer.endJob()) {
+                Logger.getInstance().log("Scan job left unfinished; it can be resumed with the next scan", false);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            System.err.println("Error finishing scan job: " + e.getMessage());
+        }
     }
 
     private void handleClear() {
@@ -76,39 +289,110 @@ public class AddressScannerController {
 
     private void handleFileUpload() {
         JFileChooser fileChooser = new JFileChooser();
-        if (fileChooser.showOpenDialog(view) == JFileChooser.APPROVE_OPTION) {
-            try {
-                model.clearAddresses();
-                int duplicates = 0;
-                for (String line : Files.readAllLines(fileChooser.getSelectedFile().toPath())) {
-                    if (!line.trim().isEmpty()) {
-                        String addr = line.trim();
-                        if (!addressesModel.containsAddress(addr)) {
-                            model.addAddress(addr);
-                            addressesModel.addAddress(addr);
-                        } else {
-                            duplicates++;
-                        }
-                    }
-                }
-                if (duplicates > 0) {
-                    JOptionPane.showMessageDialog(view,
-                            String.format("Upload complete. Skipped %d duplicate addresses.", duplicates));
+        if (fileChooser.showOpenDialog(view) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+
+        File file = fileChooser.getSelectedFile();
+        AddressImportWorker worker = new AddressImportWorker(file.toPath(), addressesModel);
+        ProgressMonitor monitor = new ProgressMonitor(view, "Importing " + file.getName(), null, 0, 100);
+        monitor.setMillisToDecideToPopup(200);
+        view.getUploadButton().setEnabled(false);
+
+        worker.addPropertyChangeListener(event -> {
+            if ("progress".equals(event.getPropertyName())) {
+                monitor.setProgress((Integer) event.getNewValue());
+                if (monitor.isCanceled()) {
+                    worker.cancel(false);
                 }
-            } catch (IOException e) {
-                JOptionPane.showMessageDialog(view, "Error loading file: " + e.getMessage());
+            } else if ("state".equals(event.getPropertyName())
+                    && event.getNewValue() == SwingWorker.StateValue.DONE) {
+                monitor.close();
+                view.getUploadButton().setEnabled(true);
+                reportImport(worker);
+            }
+        });
+        worker.execute();
+    }
+
+    private void reportImport(AddressImportWorker worker) {
+        if (worker.isCancelled()) {
+            JOptionPane.showMessageDialog(view, "Upload cancelled.");
+            return;
+        }
+        try {
+            AddressImportWorker.ImportSummary summary = worker.get();
+            if (summary.getDuplicates() > 0 || summary.getInvalid() > 0) {
+                JOptionPane.showMessageDialog(view,
+                        String.format("Upload complete. Skipped %d duplicate and %d invalid addresses.",
+                                summary.getDuplicates(), summary.getInvalid()));
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            JOptionPane.showMessageDialog(view, "Error loading file: " + e.getCause().getMessage());
         }
     }
 
     private void handleAddAddress() {
-        String address = view.getAddressFieldText();
-        if (!address.isEmpty()) {
-            System.out.println("Adding address: " + address);
-            model.addAddress(address);
-            addressesModel.addAddress(address);
+        String input = view.getAddressFieldText();
+        if (!input.isBlank()) {
+            String address = AddressValidator.normalize(input);
+            if (address == null) {
+                JOptionPane.showMessageDialog(view, "Not a valid Bitcoin address: " + input.trim());
+                return;
+            }
+            Logger.getInstance().log("Adding address: " + address, false);
             view.clearAddressField();
+            // Look it up right away in the interactive lane; a running bulk scan keeps its own list
+            model.scanAddressNow(address);
+            // The row appears once it is stored, so it can never be removed before it is written
+            CompletableFuture.runAsync(() -> DatabaseManager.getInstance().saveAddress(address))
+                    .whenComplete((ignored, error) -> SwingUtilities.invokeLater(() -> {
+                        if (error != null) {
+                            JOptionPane.showMessageDialog(view, "Error saving address: " + error.getMessage());
+                        } else {
+                            addressesModel.appendAddresses(List.of(address));
+                        }
+                    }));
         }
     }
 
-}
\ No newline at end of file
+    /**
+     * Scan job and the addresses it dispatches: all of them for a new job, or the ones an
+     * interrupted job has left.
+     */
+    private static class ScanJob {
+        private final long jobId;
+        private final AddressStore addresses;
+
+        ScanJob(long jobId, AddressStore addresses) {
+            this.jobId = jobId;
+            this.addresses = addresses;
+        }
+    }
+
+    /**
+     * Export choice offered in the save dialog.
+     */
+    private static class ExportFormat {
+        private final FileFilter filter;
+        private final ResultExporter exporter;
+
+        ExportFormat(String description, ResultExporter exporter) {
+            this.exporter = exporter;
+            String extension = "." + exporter.getFileExtension();
+            this.filter = new FileFilter() {
+                @Override
+                public boolean accept(File f) {
+                    return f.isDirectory() || f.getName().endsWith(extension);
+                }
+
+                @Override
+                public String getDescription() {
+                    return description;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.bitcoinchecker.controller;
+
+import com.bitcoinchecker.db.DatabaseManager;
+import com.bitcoinchecker.db.ScanResultWriter;
+import com.bitcoinchecker.util.ResultExporter;
+
+import javax.swing.*;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Background export of the persisted scan results.
+ * Features:
+ * - Waits for pending write-behind rows so the export includes the latest results
+ * - Streams rows from the database into the chosen ResultExporter, off the EDT
+ * - Reports progress (percent of rows written) and stops promptly when cancelled
+ * Returns the number of exported rows; a cancelled export leaves no file behind.
+ */
+public class ResultExportWorker extends SwingWorker<Integer, Void> {
+    private final ResultExporter exporter;
+    private final Path file;
+    private final ScanResultWriter resultWriter;
+
+    public ResultExportWorker(ResultExporter exporter, Path file, ScanResultWriter resultWriter) {
+        this.exporter = exporter;
+        this.file = file;
+        this.resultWriter = resultWriter;
+    }
+
+    @Override
+    protected Integer doInBackground() throws IOException, InterruptedException {
+        resultWriter.flush();
+        DatabaseManager database = DatabaseManager.getInstance();
+        long totalRows = Math.max(database.countScanResults(), 1);
+        return exporter.export(database, file, rowsWritten -> {
+            setProgress((int) Math.min(99, rowsWritten * 100L / totalRows));
+            return !isCancelled();
+        });
+    }
+}
@@ -0,0 +1,126 @@
+package com.bitcoinchecker.db;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Long-lived SQLite connections shared by the application.
+ * Features:
+ * - WAL journal with tuned synchronous, cache and temp store pragmas
+ * - Single writer connection serialized by a lock (SQLite allows one writer anyway)
+ * - Small pool of read-only connections that read concurrently with the writer
+ * - Per-connection prepared statement cache
+ */
+public class ConnectionManager implements AutoCloseable {
+    private static final int BUSY_TIMEOUT_MILLIS = 5000;
+    private static final int CACHE_SIZE_KIB = 16 * 1024;
+
+    private final CachedConnection writer;
+    private final ReentrantLock writerLock = new ReentrantLock();
+    private final BlockingQueue<CachedConnection> readers;
+    private final List<CachedConnection> allReaders = new ArrayList<>();
+
+    /**
+     * Work executed against a pooled connection.
+     */
+    @FunctionalInterface
+    public interface ConnectionCallback<T> {
+        T execute(CachedConnection connection) throws SQLException;
+    }
+
+    public ConnectionManager(String url, int readerCount) throws SQLException {
+        this.writer = open(url, false);
+        this.readers = new ArrayBlockingQueue<>(readerCount);
+        for (int i = 0; i < readerCount; i++) {
+            CachedConnection reader = open(url, true);
+            allReaders.add(reader);
+            readers.add(reader);
+        }
+    }
+
+    private static CachedConnection open(String url, boolean readOnly) throws SQLException {
+        Connection connection = DriverManager.getConnection(url);
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("PRAGMA busy_timeout = " + BUSY_TIMEOUT_MILLIS);
+            stmt.execute("PRAGMA journal_mode = WAL");
+            stmt.execute("PRAGMA synchronous = NORMAL");
+            stmt.execute("PRAGMA cache_size = -" + CACHE_SIZE_KIB);
+            stmt.execute("PRAGMA temp_store = MEMORY");
+            if (readOnly) {
+                stmt.execute("PRAGMA query_only = 1");
+            }
+        }
+        return new CachedConnection(connection);
+    }
+
+    /**
+     * Runs the callback on the writer connection in auto-commit mode.
+     */
+    public <T> T write(ConnectionCallback<T> callback) throws SQLException {
+        writerLock.lock();
+        try {
+            return callback.execute(writer);
+        } finally {
+            writerLock.unlock();
+        }
+    }
+
+    /**
+     * Runs the callback on the writer connection inside a single transaction.
+     */
+    public <T> T transaction(ConnectionCallback<T> callback) throws SQLException {
+        writerLock.lock();
+        try {
+            Connection connection = writer.getConnection();
+            connection.setAutoCommit(false);
+            try {
+                T result = callback.execute(writer);
+                connection.commit();
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } finally {
+            writerLock.unlock();
+        }
+    }
+
+    /**
+     * Runs the callback on a pooled read-only connection, waiting for one if all are busy.
+     */
+    public <T> T read(ConnectionCallback<T> callback) throws SQLException {
+        CachedConnection reader;
+        try {
+            reader = readers.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+        try {
+            return callback.execute(reader);
+        } finally {
+            readers.add(reader);
+        }
+    }
+
+    @Override
+    public void close() {
+        writerLock.lock();
+        try {
+            writer.close();
+        } finally {
+            writerLock.unlock();
+        }
+        allReaders.forEach(CachedConnection::close);
+    }
+}
@@ -1,8 +1,9 @@
 package com.bitcoinchecker.db;
 
 import java.sql.*;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import com.bitcoinchecker.cache.CacheEntry;
 import com.bitcoinchecker.model.BitcoinAddress;
 
 
@@ -10,14 +11,26 @@ import com.bitcoinchecker.model.BitcoinAddress;
  * SQLite database manager implementing Singleton pattern.
  * Provides:
  * - CRUD operations for addresses
+ * - Persistent lookup cache tier
+ * - Checkpointed scan jobs (per-address state, resume of unfinished work)
  * - Table initialization
- * - Connection management
- * Uses prepared statements for SQL injection prevention.
+ * - Connection management (long-lived WAL connections, see ConnectionManager)
+ * Uses cached prepared statements for SQL injection prevention and speed.
  */
 public class DatabaseManager {
     private static final String DB_URL = "jdbc:sqlite:addresses.db";
+    private static final int READER_CONNECTIONS = 4;
+    private static final String SAVE_SCAN_RESULT_SQL =
+            "INSERT OR REPLACE INTO scan_results (address, abuse_count, report_url, scanned_at) VALUES (?, ?, ?, ?)";
+
+    private final ConnectionManager connections;
 
     private DatabaseManager() {
+        try {
+            connections = new ConnectionManager(DB_URL, READER_CONNECTIONS);
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to open database", e);
+        }
         initDatabase();
     }
 
@@ -30,107 +43,451 @@ public class DatabaseManager {
     }
 
     public void initDatabase() {
-        try (Connection conn = DriverManager.getConnection(DB_URL)) {
-            conn.createStatement().execute(
-                    "CREATE TABLE IF NOT EXISTS addresses (address TEXT PRIMARY KEY)");
-            conn.createStatement().execute(
-                    "CREATE TABLE IF NOT EXISTS scan_results (" +
-                            "address TEXT PRIMARY KEY," +
-                            "abuse_count INTEGER," +
-                            "report_url TEXT)");
+        try {
+            connections.write(conn -> {
+                try (Statement stmt = conn.getConnection().createStatement()) {
+                    stmt.execute(
+                            "CREATE TABLE IF NOT EXISTS addresses (address TEXT PRIMARY KEY)");
+                    stmt.execute(
+                            "CREATE TABLE IF NOT EXISTS scan_results (" +
+                                    "address TEXT PRIMARY KEY," +
+                                    "abuse_count INTEGER," +
+                                    "report_url TEXT)");
+                    addColumnIfMissing(stmt, "scan_results", "scanned_at", "INTEGER");
+                    stmt.execute(
+                            "CREATE TABLE IF NOT EXISTS lookup_cache (" +
+                                    "address TEXT PRIMARY KEY," +
+                                    "report_count INTEGER," +
+                                    "found INTEGER," +
+                                    "last_checked INTEGER)");
+                    stmt.execute(
+                            "CREATE TABLE IF NOT EXISTS scan_jobs (" +
+                                    "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                                    "created_at INTEGER," +
+                                    "finished_at INTEGER)");
+                    stmt.execute(
+                            "CREATE TABLE IF NOT EXISTS scan_job_items (" +
+                                    "job_id INTEGER," +
+                                    "address TEXT," +
+                                    "state INTEGER," +
+                                    "PRIMARY KEY (job_id, address))");
+                }
+                return null;
+            });
         } catch (SQLException e) {
             throw new RuntimeException("Failed to initialize database", e);
         }
     }
 
+    private static void addColumnIfMissing(Statement stmt, String table, String column, String type)
+            throws SQLException {
+        try (ResultSet rs = stmt.executeQuery("PRAGMA table_info(" + table + ")")) {
+            while (rs.next()) {
+                if (column.equalsIgnoreCase(rs.getString("name"))) {
+                    return;
+                }
+            }
+        }
+        stmt.execute("ALTER TABLE " + table + " ADD COLUMN " + column + " " + type);
+    }
+
     public void deleteAllData() {
-        try (Connection conn = DriverManager.getConnection(DB_URL)) {
-            conn.createStatement().execute("DELETE FROM addresses");
-            conn.createStatement().execute("DELETE FROM scan_results");
+        try {
+            connections.transaction(conn -> {
+                conn.prepare("DELETE FROM addresses").executeUpdate();
+                conn.prepare("DELETE FROM scan_results").executeUpdate();
+                conn.prepare("DELETE FROM scan_job_items").executeUpdate();
+                conn.prepare("DELETE FROM scan_jobs").executeUpdate();
+                return null;
+            });
         } catch (SQLException e) {
             throw new RuntimeException("Failed to clear database", e);
         }
     }
 
     public void updateAddress(String oldAddress, String newAddress) {
-        try (Connection conn = DriverManager.getConnection(DB_URL)) {
-            String sql = "UPDATE addresses SET address = ? WHERE address = ?";
-            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try {
+            connections.write(conn -> {
+                PreparedStatement pstmt = conn.prepare("UPDATE addresses SET address = ? WHERE address = ?");
                 pstmt.setString(1, newAddress);
                 pstmt.setString(2, oldAddress);
-                pstmt.executeUpdate();
-            }
+                return pstmt.executeUpdate();
+            });
         } catch (SQLException e) {
             throw new RuntimeException("Failed to update address", e);
         }
     }
 
     public void saveAddress(String address) {
-        try (Connection conn = DriverManager.getConnection(DB_URL)) {
-            String sql = "INSERT OR REPLACE INTO addresses (address) VALUES (?)";
-            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try {
+            connections.write(conn -> {
+                PreparedStatement pstmt = conn.prepare("INSERT OR REPLACE INTO addresses (address) VALUES (?)");
                 pstmt.setString(1, address);
-                pstmt.executeUpdate();
-            }
+                return pstmt.executeUpdate();
+            });
         } catch (SQLException e) {
             throw new RuntimeException("Failed to save address", e);
         }
     }
 
+    public void saveAddresses(List<String> addresses) {
+        try {
+            connections.transaction(conn -> {
+                PreparedStatement pstmt = conn.prepare("INSERT OR REPLACE INTO addresses (address) VALUES (?)");
+                for (String address : addresses) {
+                    pstmt.setString(1, address);
+                    pstmt.addBatch();
+                }
+                return pstmt.executeBatch();
+            });
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to save addresses", e);
+        }
+    }
+
     public void saveScanResult(BitcoinAddress address) {
-        try (Connection conn = DriverManager.getConnection(DB_URL)) {
-            String sql = "INSERT OR REPLACE INTO scan_results (address, abuse_count, report_url) VALUES (?, ?, ?)";
-            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try {
+            connections.write(conn -> {
+                PreparedStatement pstmt = conn.prepare(SAVE_SCAN_RESULT_SQL);
                 pstmt.setString(1, address.getAddress());
                 pstmt.setInt(2, address.getAbuseCount());
                 pstmt.setString(3, address.getReportUrl());
-                pstmt.executeUpdate();
-            }
+                pstmt.setLong(4, System.currentTimeMillis());
+                return pstmt.executeUpdate();
+            });
         } catch (SQLException e) {
             throw new RuntimeException("Failed to save scan result", e);
         }
     }
 
+    public void saveScanResults(List<BitcoinAddress> addresses) {
+        try {
+            connections.transaction(conn -> {
+                PreparedStatement pstmt = conn.prepare(SAVE_SCAN_RESULT_SQL);
+                long scannedAt = System.currentTimeMillis();
+                for (BitcoinAddress address : addresses) {
+                    pstmt.setString(1, address.getAddress());
+                    pstmt.setInt(2, address.getAbuseCount());
+                    pstmt.setString(3, address.getReportUrl());
+                    pstmt.setLong(4, scannedAt);
+                    pstmt.addBatch();
+                }
+                return pstmt.executeBatch();
+            });
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to save scan results", e);
+        }
+    }
+
     public void deleteAddress(String address) {
-        try (Connection conn = DriverManager.getConnection(DB_URL)) {
-            String sql = "DELETE FROM addresses WHERE address = ?";
-            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try {
+            connections.write(conn -> {
+                PreparedStatement pstmt = conn.prepare("DELETE FROM addresses WHERE address = ?");
                 pstmt.setString(1, address);
-                pstmt.executeUpdate();
-            }
+                return pstmt.executeUpdate();
+            });
         } catch (SQLException e) {
             throw new RuntimeException("Failed to delete address", e);
         }
     }
 
-    public List<String> loadAddresses() {
-        List<String> addresses = new ArrayList<>();
-        try (Connection conn = DriverManager.getConnection(DB_URL);
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery("SELECT address FROM addresses")) {
-            while (rs.next()) {
-                addresses.add(rs.getString("address"));
-            }
-            return addresses;
+    /**
+     * Streams the saved addresses from a database cursor without materializing them.
+     */
+    public void forEachAddress(AddressVisitor visitor) {
+        try {
+            connections.read(conn -> {
+                try (ResultSet rs = conn.prepare("SELECT address FROM addresses").executeQuery()) {
+                    while (rs.next()) {
+                        visitor.visit(rs.getString(1));
+                    }
+                }
+                return null;
+            });
         } catch (SQLException e) {
             throw new RuntimeException("Failed to load addresses", e);
         }
     }
 
-    public List<BitcoinAddress> loadScanResults() {
-        List<BitcoinAddress> results = new ArrayList<>();
-        try (Connection conn = DriverManager.getConnection(DB_URL);
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery("SELECT * FROM scan_results")) {
-            while (rs.next()) {
-                BitcoinAddress address = new BitcoinAddress(rs.getString("address"));
-                address.setAbuseCount(rs.getInt("abuse_count"));
-                address.setReportUrl(rs.getString("report_url"));
-                results.add(address);
-            }
-            return results;
+    public void deleteCacheEntry(String address) {
+        try {
+            connections.write(conn -> {
+                PreparedStatement pstmt = conn.prepare("DELETE FROM lookup_cache WHERE address = ?");
+                pstmt.setString(1, address);
+                return pstmt.executeUpdate();
+            });
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to delete cache entry", e);
+        }
+    }
+
+    /**
+     * Streams every watched address with its last result; scannedAt is 0 when it was never scanned.
+     */
+    public void forEachWatchlistEntry(WatchlistVisitor visitor) {
+        try {
+            connections.read(conn -> {
+                try (ResultSet rs = conn.prepare(
+                        "SELECT a.address, r.abuse_count, r.scanned_at FROM addresses a " +
+                                "LEFT JOIN scan_results r ON r.address = a.address").executeQuery()) {
+                    while (rs.next()) {
+                        visitor.visit(rs.getString(1), rs.getInt(2), rs.getLong(3));
+                    }
+                }
+                return null;
+            });
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to read watchlist", e);
+        }
+    }
+
+    public int countScanResults() {
+        try {
+            return connections.read(conn -> {
+                try (ResultSet rs = conn.prepare("SELECT COUNT(*) FROM scan_results").executeQuery()) {
+                    return rs.next() ? rs.getInt(1) : 0;
+                }
+            });
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to count scan results", e);
+        }
+    }
+
+    /**
+     * Streams scan results from a database cursor without materializing them,
+     * stopping early when the visitor returns false.
+     */
+    public void forEachScanResult(ScanResultVisitor visitor) {
+        try {
+            connections.read(conn -> {
+                try (ResultSet rs = conn.prepare(
+                        "SELECT address, abuse_count, report_url FROM scan_results").executeQuery()) {
+                    while (rs.next()) {
+                        if (!visitor.visit(rs.getString(1), rs.getInt(2), rs.getString(3))) {
+                            break;
+                        }
+                    }
+                }
+                return null;
+            });
         } catch (SQLException e) {
-            throw new RuntimeException("Failed to load scan results", e);
+            throw new RuntimeException("Failed to read scan results", e);
         }
     }
-}
\ No newline at end of file
+
+    public CacheEntry loadCacheEntry(String address) {
+        try {
+            return connections.read(conn -> {
+                PreparedStatement pstmt = conn.prepare(
+                        "SELECT report_count, found, last_checked FROM lookup_cache WHERE address = ?");
+                pstmt.setString(1, address);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (!rs.next()) {
+                        return null;
+                    }
+                    return new CacheEntry(rs.getInt("report_count"), rs.getInt("found") != 0,
+                            rs.getLong("last_checked"));
+                }
+            });
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to load cache entry", e);
+        }
+    }
+
+    public void saveCacheEntry(String address, CacheEntry entry) {
+        try {
+            connections.write(conn -> {
+                PreparedStatement pstmt = conn.prepare(
+                        "INSERT OR REPLACE INTO lookup_cache (address, report_count, found, last_checked) VALUES (?, ?, ?, ?)");
+                pstmt.setString(1, address);
+                pstmt.setInt(2, entry.getReportCount());
+                pstmt.setInt(3, entry.isFound() ? 1 : 0);
+                pstmt.setLong(4, entry.getLastChecked());
+                return pstmt.executeUpdate();
+            });
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to save cache entry", e);
+        }
+    }
+
+    /**
+     * Creates a scan job with every address PENDING and returns its id.
+     */
+    public long createScanJob(Iterable<String> addresses) {
+        try {
+            return connections.transaction(conn -> {
+                PreparedStatement job = conn.prepare("INSERT INTO scan_jobs (created_at) VALUES (?)");
+                job.setLong(1, System.currentTimeMillis());
+                job.executeUpdate();
+                long jobId;
+                try (ResultSet rs = conn.prepare("SELECT last_insert_rowid()").executeQuery()) {
+                    rs.next();
+                    jobId = rs.getLong(1);
+                }
+                PreparedStatement pstmt = conn.prepare(
+                        "INSERT OR REPLACE INTO scan_job_items (job_id, address, state) VALUES (?, ?, ?)");
+                for (String address : addresses) {
+                    pstmt.setLong(1, jobId);
+                    pstmt.setString(2, address);
+                    pstmt.setInt(3, ScanJobState.PENDING.getCode());
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+                return jobId;
+            });
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to create scan job", e);
+        }
+    }
+
+    /**
+     * Rewrites job items stored in another form (old address to new, or null to drop the item),
+     * so later checkpoints keyed by the new form find their rows.
+     */
+    public void renameScanJobItems(long jobId, Map<String, String> renamed) {
+        try {
+            connections.transaction(conn -> {
+                PreparedStatement rename = conn.prepare(
+                        "UPDATE OR REPLACE scan_job_items SET address = ? WHERE job_id = ? AND address = ?");
+                PreparedStatement drop = conn.prepare(
+                        "DELETE FROM scan_job_items WHERE job_id = ? AND address = ?");
+                for (Map.Entry<String, String> entry : renamed.entrySet()) {
+                    if (entry.getValue() == null) {
+                        drop.setLong(1, jobId);
+                        drop.setString(2, entry.getKey());
+                        drop.addBatch();
+                    } else {
+                        rename.setString(1, entry.getValue());
+                        rename.setLong(2, jobId);
+                        rename.setString(3, entry.getKey());
+                        rename.addBatch();
+                    }
+                }
+                rename.executeBatch();
+                return drop.executeBatch();
+            });
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to rename scan job items", e);
+        }
+    }
+
+    /**
+     * Applies a batch of per-address state changes to a job in one transaction.
+     */
+    public void checkpointScanJob(long jobId, Map<String, ScanJobState> states) {
+        try {
+            connections.transaction(conn -> {
+                PreparedStatement pstmt = conn.prepare(
+                        "UPDATE scan_job_items SET state = ? WHERE job_id = ? AND address = ?");
+                for (Map.Entry<String, ScanJobState> entry : states.entrySet()) {
+                    pstmt.setInt(1, entry.getValue().getCode());
+                    pstmt.setLong(2, jobId);
+                    pstmt.setString(3, entry.getKey());
+                    pstmt.addBatch();
+                }
+                return pstmt.executeBatch();
+            });
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to checkpoint scan job", e);
+        }
+    }
+
+    /**
+     * Returns the id of the most recent job that has not finished, or null.
+     */
+    public Long findUnfinishedScanJob() {
+        try {
+            return connections.read(conn -> {
+                try (ResultSet rs = conn.prepare(
+                        "SELECT id FROM scan_jobs WHERE finished_at IS NULL ORDER BY id DESC LIMIT 1").executeQuery()) {
+                    return rs.next() ? rs.getLong(1) : null;
+                }
+            });
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to find unfinished scan job", e);
+        }
+    }
+
+    /**
+     * Streams the addresses of the job that still need a lookup (pending, in flight when
+     * interrupted, or failed) to the visitor.
+     */
+    public void forEachUnfinishedJobAddress(long jobId, AddressVisitor visitor) {
+        try {
+            connections.read(conn -> {
+                PreparedStatement pstmt = conn.prepare(
+                        "SELECT address FROM scan_job_items WHERE job_id = ? AND state <> ?");
+                pstmt.setLong(1, jobId);
+                pstmt.setInt(2, ScanJobState.DONE.getCode());
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        visitor.visit(rs.getString(1));
+                    }
+                }
+                return null;
+            });
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to load unfinished scan job", e);
+        }
+    }
+
+    /**
+     * Marks the job finished and drops its items, but only when every address is DONE
+     * (or unconditionally when abandoning it). Returns true when the job was closed.
+     */
+    public boolean finishScanJob(long jobId, boolean abandon) {
+        try {
+            return connections.transaction(conn -> {
+                if (!abandon) {
+                    PreparedStatement open = conn.prepare(
+                            "SELECT 1 FROM scan_job_items WHERE job_id = ? AND state <> ? LIMIT 1");
+                    open.setLong(1, jobId);
+                    open.setInt(2, ScanJobState.DONE.getCode());
+                    try (ResultSet rs = open.executeQuery()) {
+                        if (rs.next()) {
+                            return false;
+                        }
+                    }
+                }
+                PreparedStatement items = conn.prepare("DELETE FROM scan_job_items WHERE job_id = ?");
+                items.setLong(1, jobId);
+                items.executeUpdate();
+                PreparedStatement job = conn.prepare("UPDATE scan_jobs SET finished_at = ? WHERE id = ?");
+                job.setLong(1, System.currentTimeMillis());
+                job.setLong(2, jobId);
+                job.executeUpdate();
+                return true;
+            });
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to finish scan job", e);
+        }
+    }
+
+    public void close() {
+        connections.close();
+    }
+
+    /**
+     * Receives one address at a time.
+     */
+    @FunctionalInterface
+    public interface AddressVisitor {
+        void visit(String address);
+    }
+
+    /**
+     * Receives one watchlist entry at a time.
+     */
+    @FunctionalInterface
+    public interface WatchlistVisitor {
+        void visit(String address, int abuseCount, long scannedAt);
+    }
+
+    /**
+     * Receives one scan result row at a time; returns false to stop the iteration.
+     */
+    @FunctionalInterface
+    public interface ScanResultVisitor {
+        boolean visit(String address, int abuseCount, String reportUrl);
+    }
+}
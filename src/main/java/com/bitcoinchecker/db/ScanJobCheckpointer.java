@@ -0,0 +1,245 @@
+package com.bitcoinchecker.db;
+
+import com.bitcoinchecker.model.BitcoinAddress;
+import com.bitcoinchecker.observer.ScanObserver;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Batched checkpointing of scan job progress, registered as a ScanObserver.
+ * Features:
+ * - Records IN_FLIGHT / DONE / FAILED per address for the active job
+ * - Background flusher applying up to N state changes in one transaction, or after T milliseconds
+ * - Changes to the same address within a batch are coalesced (last state wins)
+ * - Waits for ScanResultWriter before each checkpoint, so an address is never DONE without its result row;
+ *   addresses whose result failed to save are checkpointed FAILED instead, to be rescanned on resume
+ * - endJob() waits for pending checkpoints and closes the job once every address is DONE
+ * Events that arrive while no job is active, or after close(), are ignored.
+ */
+public class ScanJobCheckpointer implements ScanObserver {
+    private final DatabaseManager database;
+    private final ScanResultWriter resultWriter;
+    private final BlockingQueue<Update> queue;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final Thread flusher;
+    private final AtomicLong submitted = new AtomicLong();
+    private final Object persistedLock = new Object();
+    private final ReadWriteLock closeLock = new ReentrantReadWriteLock();
+    private final Set<String> unsavedResults = ConcurrentHashMap.newKeySet();
+    private long persisted;
+    private long failed;
+    private volatile long activeJobId = -1;
+    private volatile boolean running = true;
+
+    /**
+     * Must be registered as an observer after resultWriter, so results are queued before their checkpoint.
+     */
+    public ScanJobCheckpointer(DatabaseManager database, ScanResultWriter resultWriter,
+                               int queueCapacity, int batchSize, long flushIntervalMillis) {
+        this.database = database;
+        this.resultWriter = resultWriter;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        this.flusher = new Thread(this::runFlusher, "scan-job-checkpointer");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+        resultWriter.addFailureListener(rows -> {
+            if (activeJobId >= 0) {
+                for (BitcoinAddress row : rows) {
+                    unsavedResults.add(row.getAddress());
+                }
+            }
+        });
+    }
+
+    /**
+     * Makes the job the target of subsequent scan events.
+     */
+    public void beginJob(long jobId) {
+        unsavedResults.clear();
+        activeJobId = jobId;
+    }
+
+    /**
+     * Flushes pending checkpoints and detaches the job. Returns true when every address
+     * is DONE and the job was closed; otherwise it stays resumable.
+     */
+    public boolean endJob() throws InterruptedException {
+        long jobId = activeJobId;
+        activeJobId = -1;
+        awaitPersisted();
+        return jobId >= 0 && database.finishScanJob(jobId, false);
+    }
+
+    @Override
+    public void onScanStarted() {
+    }
+
+    @Override
+    public void onAddressDispatched(BitcoinAddress address) {
+        submit(address, ScanJobState.IN_FLIGHT);
+    }
+
+    @Override
+    public void onAddressScanned(BitcoinAddress address) {
+        submit(address, ScanJobState.DONE);
+    }
+
+    @Override
+    public void onAddressFailed(BitcoinAddress address, Exception e) {
+        submit(address, ScanJobState.FAILED);
+    }
+
+    @Override
+    public void onScanCompleted(List<BitcoinAddress> results) {
+    }
+
+    @Override
+    public void onScanFailed(Exception e) {
+    }
+
+    /**
+     * Stops the flusher after it has written every queued checkpoint.
+     */
+    public void close() {
+        closeLock.writeLock().lock();
+        try {
+            running = false;
+        } finally {
+            closeLock.writeLock().unlock();
+        }
+        try {
+            flusher.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Queues the change under the read lock, so close() cannot stop the flusher between the
+     * running check and the put; once closed, changes are dropped and the job stays resumable.
+     */
+    private void submit(BitcoinAddress address, ScanJobState state) {
+        closeLock.readLock().lock();
+        try {
+            long jobId = activeJobId;
+            if (jobId < 0 || !running) {
+                return;
+            }
+            submitted.incrementAndGet();
+            try {
+                queue.put(new Update(jobId, address.getAddress(), state));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                markCompleted(false, 1);
+            }
+        } finally {
+            closeLock.readLock().unlock();
+        }
+    }
+
+    private void awaitPersisted() throws InterruptedException {
+        long target = submitted.get();
+        synchronized (persistedLock) {
+            while (persisted + failed < target && flusher.isAlive()) {
+                persistedLock.wait(flushIntervalNanos / 1_000_000 + 1);
+            }
+        }
+    }
+
+    private void runFlusher() {
+        List<Update> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Update first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < batchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    Update next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                queue.drainTo(batch);
+                running = false;
+            }
+            flush(batch);
+        }
+    }
+
+    private void flush(List<Update> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            resultWriter.flush();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+        // Queue order is preserved, so the last state seen for an address wins. The result
+        // writer has reported any failed rows by now; those addresses must not become DONE.
+        Map<Long, Map<String, ScanJobState>> byJob = new LinkedHashMap<>();
+        Map<Long, Integer> updatesByJob = new LinkedHashMap<>();
+        for (Update update : batch) {
+            ScanJobState state = update.state == ScanJobState.DONE && unsavedResults.remove(update.address)
+                    ? ScanJobState.FAILED : update.state;
+            byJob.computeIfAbsent(update.jobId, id -> new LinkedHashMap<>()).put(update.address, state);
+            updatesByJob.merge(update.jobId, 1, Integer::sum);
+        }
+        for (Map.Entry<Long, Map<String, ScanJobState>> job : byJob.entrySet()) {
+            boolean saved;
+            try {
+                database.checkpointScanJob(job.getKey(), job.getValue());
+                saved = true;
+            } catch (RuntimeException e) {
+                System.err.println("Error checkpointing scan job " + job.getKey() + ": " + e.getMessage());
+                saved = false;
+            }
+            markCompleted(saved, updatesByJob.get(job.getKey()));
+        }
+        batch.clear();
+    }
+
+    private void markCompleted(boolean saved, int updates) {
+        synchronized (persistedLock) {
+            if (saved) {
+                persisted += updates;
+            } else {
+                failed += updates;
+            }
+            persistedLock.notifyAll();
+        }
+    }
+
+    private static class Update {
+        private final long jobId;
+        private final String address;
+        private final ScanJobState state;
+
+        Update(long jobId, String address, ScanJobState state) {
+            this.jobId = jobId;
+            this.address = address;
+            this.state = state;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.bitcoinchecker.db;
+
+/**
+ * Per-address state of a checkpointed scan job, stored as its code in scan_job_items.
+ * - PENDING: queued, not dispatched yet
+ * - IN_FLIGHT: lookup dispatched, result not recorded (re-queued on resume)
+ * - DONE: result recorded
+ * - FAILED: lookup failed (re-queued on resume)
+ */
+public enum ScanJobState {
+    PENDING(0),
+    IN_FLIGHT(1),
+    DONE(2),
+    FAILED(3);
+
+    private final int code;
+
+    ScanJobState(int code) {
+        this.code = code;
+    }
+
+    public int getCode() {
+        return code;
+    }
+}
@@ -0,0 +1,194 @@
+package com.bitcoinchecker.db;
+
+import com.bitcoinchecker.metrics.ScanMetrics;
+import com.bitcoinchecker.model.BitcoinAddress;
+import com.bitcoinchecker.observer.ScanObserver;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Write-behind persistence for scan results, registered as a ScanObserver.
+ * Features:
+ * - Bounded queue: scanner threads block when the disk falls behind (backpressure)
+ * - Background flusher writing batches of up to N rows in one transaction
+ * - Partial batches flushed after at most T milliseconds
+ * - flush() to wait until everything submitted so far is on disk (e.g. before an export)
+ * - Final flush on close (application shutdown); rows submitted after close are saved synchronously
+ * - Failure listeners told which rows could not be saved, so nothing treats them as persisted
+ * - Flush latency and queue depth reported to ScanMetrics
+ */
+public class ScanResultWriter implements ScanObserver {
+    private final DatabaseManager database;
+    private final BlockingQueue<BitcoinAddress> queue;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final Thread flusher;
+    private final AtomicLong submitted = new AtomicLong();
+    private final Object persistedLock = new Object();
+    private final ReadWriteLock closeLock = new ReentrantReadWriteLock();
+    private final List<Consumer<List<BitcoinAddress>>> failureListeners = new CopyOnWriteArrayList<>();
+    private long persisted;
+    private long failed;
+    private volatile boolean running = true;
+
+    public ScanResultWriter(DatabaseManager database, int queueCapacity, int batchSize, long flushIntervalMillis) {
+        this.database = database;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        this.flusher = new Thread(this::runFlusher, "scan-result-writer");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+        ScanMetrics.getInstance().setDbWriteQueueDepth(queue::size);
+    }
+
+    /**
+     * Queues the row, or saves it on the calling thread once the writer is closed.
+     * Holding the read lock while queueing means close() cannot stop the flusher between
+     * the running check and the put, so no row is left behind in the queue.
+     */
+    public void submit(BitcoinAddress address) {
+        closeLock.readLock().lock();
+        try {
+            if (!running) {
+                save(List.of(address));
+                return;
+            }
+            submitted.incrementAndGet();
+            try {
+                queue.put(address);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                markCompleted(save(List.of(address)), 1);
+            }
+        } finally {
+            closeLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Registers a callback for rows that could not be saved. It runs on the writing thread
+     * before the rows count as completed, so it has run by the time flush() returns.
+     */
+    public void addFailureListener(Consumer<List<BitcoinAddress>> listener) {
+        failureListeners.add(listener);
+    }
+
+    /**
+     * Blocks until every row submitted before this call has been written or has failed to write.
+     */
+    public void flush() throws InterruptedException {
+        long target = submitted.get();
+        synchronized (persistedLock) {
+            while (persisted + failed < target && flusher.isAlive()) {
+                persistedLock.wait(flushIntervalNanos / 1_000_000 + 1);
+            }
+        }
+    }
+
+    @Override
+    public void onScanStarted() {
+    }
+
+    @Override
+    public void onAddressScanned(BitcoinAddress address) {
+        submit(address);
+    }
+
+    @Override
+    public void onScanCompleted(List<BitcoinAddress> results) {
+    }
+
+    @Override
+    public void onScanFailed(Exception e) {
+    }
+
+    /**
+     * Stops accepting queued writes and waits for pending rows to be flushed.
+     */
+    public void close() {
+        closeLock.writeLock().lock();
+        try {
+            running = false;
+        } finally {
+            closeLock.writeLock().unlock();
+        }
+        try {
+            flusher.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void runFlusher() {
+        List<BitcoinAddress> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                BitcoinAddress first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < batchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    BitcoinAddress next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                queue.drainTo(batch);
+                running = false;
+            }
+            flush(batch);
+        }
+    }
+
+    private void markCompleted(boolean saved, int rows) {
+        synchronized (persistedLock) {
+            if (saved) {
+                persisted += rows;
+            } else {
+                failed += rows;
+            }
+            persistedLock.notifyAll();
+        }
+    }
+
+    private void flush(List<BitcoinAddress> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        markCompleted(save(batch), batch.size());
+        batch.clear();
+    }
+
+    /**
+     * Saves the rows in one transaction; on failure, tells the failure listeners and returns false.
+     */
+    private boolean save(List<BitcoinAddress> rows) {
+        long start = System.nanoTime();
+        try {
+            database.saveScanResults(rows);
+            ScanMetrics.getInstance().dbFlushed(System.nanoTime() - start);
+            return true;
+        } catch (RuntimeException e) {
+            System.err.println("Error saving " + rows.size() + " scan results: " + e.getMessage());
+            List<BitcoinAddress> unsaved = List.copyOf(rows);
+            for (Consumer<List<BitcoinAddress>> listener : failureListeners) {
+                listener.accept(unsaved);
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.bitcoinchecker.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with HDR-style log-linear buckets.
+ * Features:
+ * - Microsecond resolution from 1us up to about an hour (longer values are clamped)
+ * - Exact below 128us, then 64 sub-buckets per power of two (under 1.6% relative error)
+ * - Fixed footprint (one long per bucket) and no allocation when recording
+ * - Percentiles read from a snapshot of the counts, so readers never block recorders
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_HALF_BITS = SUB_BUCKET_BITS - 1;
+    private static final long MAX_VALUE_MICROS = TimeUnit.HOURS.toMicros(1);
+    private static final int BUCKET_COUNT = indexOf(MAX_VALUE_MICROS) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder totalCount = new LongAdder();
+    private final LongAdder totalMicros = new LongAdder();
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    public void recordNanos(long nanos) {
+        long micros = Math.min(Math.max(TimeUnit.NANOSECONDS.toMicros(nanos), 0), MAX_VALUE_MICROS);
+        counts.incrementAndGet(indexOf(micros));
+        totalCount.increment();
+        totalMicros.add(micros);
+        maxMicros.accumulateAndGet(micros, Math::max);
+    }
+
+    public long getCount() {
+        return totalCount.sum();
+    }
+
+    public double getMeanMillis() {
+        long count = totalCount.sum();
+        return count == 0 ? 0 : totalMicros.sum() / (count * 1000.0);
+    }
+
+    public double getMaxMillis() {
+        return maxMicros.get() / 1000.0;
+    }
+
+    /**
+     * Value at the given percentile (0-100) in milliseconds, or 0 when nothing was recorded.
+     */
+    public double getPercentileMillis(double percentile) {
+        return getPercentilesMillis(percentile)[0];
+    }
+
+    /**
+     * Several percentiles from one snapshot of the counts, in the order given.
+     */
+    public double[] getPercentilesMillis(double... percentiles) {
+        long[] snapshot = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+
+        double[] values = new double[percentiles.length];
+        if (total == 0) {
+            return values;
+        }
+        for (int p = 0; p < percentiles.length; p++) {
+            long target = Math.max(1, (long) Math.ceil(Math.min(percentiles[p], 100) / 100.0 * total));
+            long seen = 0;
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                seen += snapshot[i];
+                if (seen >= target) {
+                    values[p] = Math.min(midpointOf(i), maxMicros.get()) / 1000.0;
+                    break;
+                }
+            }
+        }
+        return values;
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts.set(i, 0);
+        }
+        totalCount.reset();
+        totalMicros.reset();
+        maxMicros.set(0);
+    }
+
+    /**
+     * Values below 128 map to themselves; above that, bucket b (covering [64 << b, 128 << b))
+     * is split into 64 sub-buckets of width 2^b.
+     */
+    private static int indexOf(long micros) {
+        int bucket = Math.max(0, 64 - Long.numberOfLeadingZeros(micros) - SUB_BUCKET_BITS);
+        return (bucket << SUB_BUCKET_HALF_BITS) + (int) (micros >>> bucket);
+    }
+
+    private static long midpointOf(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int bucket = (index >>> SUB_BUCKET_HALF_BITS) - 1;
+        long subBucket = index - ((long) bucket << SUB_BUCKET_HALF_BITS);
+        long low = subBucket << bucket;
+        return low + ((1L << bucket) >>> 1);
+    }
+}
@@ -0,0 +1,58 @@
+package com.bitcoinchecker.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Events per second over a sliding window of whole seconds.
+ * Counts go into a small ring of per-second slots; a slot is recycled when its second
+ * comes round again. The current, still filling second is left out of the rate.
+ */
+public class RateMeter {
+    private static final int WINDOW_SECONDS = 10;
+    private static final int SLOTS = WINDOW_SECONDS + 2;
+
+    private final AtomicLongArray slotSeconds = new AtomicLongArray(SLOTS);
+    private final AtomicLongArray slotCounts = new AtomicLongArray(SLOTS);
+    private final LongAdder total = new LongAdder();
+
+    public void mark() {
+        long second = currentSecond();
+        int slot = (int) Math.floorMod(second, (long) SLOTS);
+        long slotSecond = slotSeconds.get(slot);
+        if (slotSecond != second && slotSeconds.compareAndSet(slot, slotSecond, second)) {
+            slotCounts.set(slot, 0);
+        }
+        slotCounts.incrementAndGet(slot);
+        total.increment();
+    }
+
+    public double getRatePerSecond() {
+        long now = currentSecond();
+        long events = 0;
+        for (int i = 0; i < SLOTS; i++) {
+            long second = slotSeconds.get(i);
+            if (second < now && second >= now - WINDOW_SECONDS) {
+                events += slotCounts.get(i);
+            }
+        }
+        return events / (double) WINDOW_SECONDS;
+    }
+
+    public long getTotal() {
+        return total.sum();
+    }
+
+    public void reset() {
+        for (int i = 0; i < SLOTS; i++) {
+            slotSeconds.set(i, 0);
+            slotCounts.set(i, 0);
+        }
+        total.reset();
+    }
+
+    private static long currentSecond() {
+        return TimeUnit.NANOSECONDS.toSeconds(System.nanoTime());
+    }
+}
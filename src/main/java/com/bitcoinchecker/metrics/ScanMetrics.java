@@ -0,0 +1,293 @@
+package com.bitcoinchecker.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Process-wide scan instrumentation.
+ * Features:
+ * - API latency histogram (one sample per HTTP exchange, retries included) and request rate
+ * - Response counts by status class (200 / 404 / 429 / 5xx / other) and transport errors
+ * - API in-flight count; lookup and DB write queue depths read from the owning components
+ * - Lookups coalesced onto an identical in-flight lookup (API calls saved)
+ * - Per-address scan latency (dispatch to result, cache hits included) and scan rate
+ * - DB flush latency per write batch
+ * - JMX MBean and a compact one-line dump for logs
+ * Recording is lock-free, so the hot paths can call it for every request.
+ * Uses static initialization holder pattern for thread-safe singleton.
+ */
+public class ScanMetrics implements ScanMetricsMXBean {
+    private static final String OBJECT_NAME = "com.bitcoinchecker:type=ScanMetrics";
+
+    private final LatencyHistogram apiLatency = new LatencyHistogram();
+    private final RateMeter apiRequests = new RateMeter();
+    private final LongAdder status200 = new LongAdder();
+    private final LongAdder status404 = new LongAdder();
+    private final LongAdder status429 = new LongAdder();
+    private final LongAdder status5xx = new LongAdder();
+    private final LongAdder statusOther = new LongAdder();
+    private final LongAdder transportErrors = new LongAdder();
+    private final AtomicInteger apiInFlight = new AtomicInteger();
+    private final LongAdder coalescedLookups = new LongAdder();
+    private final LatencyHistogram scanLatency = new LatencyHistogram();
+    private final RateMeter scans = new RateMeter();
+    private final LongAdder scanFailures = new LongAdder();
+    private final LatencyHistogram dbFlushLatency = new LatencyHistogram();
+    private volatile IntSupplier lookupQueueDepth = () -> 0;
+    private volatile IntSupplier dbWriteQueueDepth = () -> 0;
+
+    private ScanMetrics() {
+    }
+
+    private static class InstanceHolder {
+        private static final ScanMetrics INSTANCE = new ScanMetrics();
+    }
+
+    public static ScanMetrics getInstance() {
+        return InstanceHolder.INSTANCE;
+    }
+
+    /**
+     * Registers the MBean with the platform MBean server; safe to call more than once.
+     */
+    public void registerMBean() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(this, name);
+            }
+        } catch (JMException | RuntimeException e) {
+            System.err.println("Error registering metrics MBean: " + e.getMessage());
+        }
+    }
+
+    public void apiRequestStarted() {
+        apiInFlight.incrementAndGet();
+    }
+
+    /**
+     * Records one finished HTTP exchange; status is 0 when no response arrived.
+     */
+    public void apiRequestFinished(long nanos, int status) {
+        apiInFlight.decrementAndGet();
+        apiLatency.recordNanos(nanos);
+        apiRequests.mark();
+        if (status == 200) {
+            status200.increment();
+        } else if (status == 404) {
+            status404.increment();
+        } else if (status == 429) {
+            status429.increment();
+        } else if (status >= 500 && status < 600) {
+            status5xx.increment();
+        } else if (status == 0) {
+            transportErrors.increment();
+        } else {
+            statusOther.increment();
+        }
+    }
+
+    public void lookupCoalesced() {
+        coalescedLookups.increment();
+    }
+
+    public void addressScanned(long nanos) {
+        scanLatency.recordNanos(nanos);
+        scans.mark();
+    }
+
+    public void addressFailed(long nanos) {
+        scanLatency.recordNanos(nanos);
+        scanFailures.increment();
+    }
+
+    public void dbFlushed(long nanos) {
+        dbFlushLatency.recordNanos(nanos);
+    }
+
+    public void setLookupQueueDepth(IntSupplier depth) {
+        this.lookupQueueDepth = depth;
+    }
+
+    public void setDbWriteQueueDepth(IntSupplier depth) {
+        this.dbWriteQueueDepth = depth;
+    }
+
+    @Override
+    public double getApiRequestsPerSecond() {
+        return apiRequests.getRatePerSecond();
+    }
+
+    @Override
+    public long getApiRequestCount() {
+        return apiRequests.getTotal();
+    }
+
+    @Override
+    public double getApiLatencyP50Millis() {
+        return apiLatency.getPercentileMillis(50);
+    }
+
+    @Override
+    public double getApiLatencyP99Millis() {
+        return apiLatency.getPercentileMillis(99);
+    }
+
+    @Override
+    public double getApiLatencyP999Millis() {
+        return apiLatency.getPercentileMillis(99.9);
+    }
+
+    @Override
+    public double getApiLatencyMaxMillis() {
+        return apiLatency.getMaxMillis();
+    }
+
+    @Override
+    public long getStatus200Count() {
+        return status200.sum();
+    }
+
+    @Override
+    public long getStatus404Count() {
+        return status404.sum();
+    }
+
+    @Override
+    public long getStatus429Count() {
+        return status429.sum();
+    }
+
+    @Override
+    public long getStatus5xxCount() {
+        return status5xx.sum();
+    }
+
+    @Override
+    public long getStatusOtherCount() {
+        return statusOther.sum();
+    }
+
+    @Override
+    public long getTransportErrorCount() {
+        return transportErrors.sum();
+    }
+
+    @Override
+    public int getApiInFlight() {
+        return apiInFlight.get();
+    }
+
+    @Override
+    public long getCoalescedLookupCount() {
+        return coalescedLookups.sum();
+    }
+
+    @Override
+    public int getLookupQueueDepth() {
+        return lookupQueueDepth.getAsInt();
+    }
+
+    @Override
+    public int getDbWriteQueueDepth() {
+        return dbWriteQueueDepth.getAsInt();
+    }
+
+    @Override
+    public double getScansPerSecond() {
+        return scans.getRatePerSecond();
+    }
+
+    @Override
+    public long getScannedCount() {
+        return scans.getTotal();
+    }
+
+    @Override
+    public long getScanFailedCount() {
+        return scanFailures.sum();
+    }
+
+    @Override
+    public double getScanLatencyP50Millis() {
+        return scanLatency.getPercentileMillis(50);
+    }
+
+    @Override
+    public double getScanLatencyP99Millis() {
+        return scanLatency.getPercentileMillis(99);
+    }
+
+    @Override
+    public double getScanLatencyP999Millis() {
+        return scanLatency.getPercentileMillis(99.9);
+    }
+
+    @Override
+    public long getDbFlushCount() {
+        return dbFlushLatency.getCount();
+    }
+
+    @Override
+    public double getDbFlushP50Millis() {
+        return dbFlushLatency.getPercentileMillis(50);
+    }
+
+    @Override
+    public double getDbFlushP99Millis() {
+        return dbFlushLatency.getPercentileMillis(99);
+    }
+
+    @Override
+    public double getDbFlushMaxMillis() {
+        return dbFlushLatency.getMaxMillis();
+    }
+
+    /**
+     * One-line summary, e.g. for the log at the end of a scan.
+     */
+    @Override
+    public String dump() {
+        double[] api = apiLatency.getPercentilesMillis(50, 99, 99.9);
+        double[] scan = scanLatency.getPercentilesMillis(50, 99, 99.9);
+        double[] db = dbFlushLatency.getPercentilesMillis(50, 99);
+        return String.format(Locale.ROOT,
+                "api: %d req %.1f/s p50=%.1fms p99=%.1fms p999=%.1fms max=%.1fms"
+                        + " | status 200=%d 404=%d 429=%d 5xx=%d other=%d io=%d"
+                        + " | inflight=%d queued=%d coalesced=%d"
+                        + " | scan: %d ok %d failed %.1f/s p50=%.1fms p99=%.1fms p999=%.1fms"
+                        + " | db: %d flushes p50=%.1fms p99=%.1fms max=%.1fms queued=%d",
+                apiRequests.getTotal(), apiRequests.getRatePerSecond(), api[0], api[1], api[2], apiLatency.getMaxMillis(),
+                status200.sum(), status404.sum(), status429.sum(), status5xx.sum(), statusOther.sum(),
+                transportErrors.sum(), apiInFlight.get(), getLookupQueueDepth(), coalescedLookups.sum(),
+                scans.getTotal(), scanFailures.sum(), scans.getRatePerSecond(), scan[0], scan[1], scan[2],
+                dbFlushLatency.getCount(), db[0], db[1], dbFlushLatency.getMaxMillis(), getDbWriteQueueDepth());
+    }
+
+    /**
+     * Clears histograms and counters (gauges are live and unaffected), e.g. before a benchmark run.
+     */
+    @Override
+    public void reset() {
+        apiLatency.reset();
+        apiRequests.reset();
+        status200.reset();
+        status404.reset();
+        status429.reset();
+        status5xx.reset();
+        statusOther.reset();
+        transportErrors.reset();
+        coalescedLookups.reset();
+        scanLatency.reset();
+        scans.reset();
+        scanFailures.reset();
+        dbFlushLatency.reset();
+    }
+}
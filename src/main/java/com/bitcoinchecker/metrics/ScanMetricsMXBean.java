@@ -0,0 +1,64 @@
+package com.bitcoinchecker.metrics;
+
+/**
+ * JMX view of the scanner metrics, registered as com.bitcoinchecker:type=ScanMetrics.
+ * Latencies are in milliseconds and cumulative since start (or the last reset);
+ * rates cover the last few seconds.
+ */
+public interface ScanMetricsMXBean {
+    double getApiRequestsPerSecond();
+
+    long getApiRequestCount();
+
+    double getApiLatencyP50Millis();
+
+    double getApiLatencyP99Millis();
+
+    double getApiLatencyP999Millis();
+
+    double getApiLatencyMaxMillis();
+
+    long getStatus200Count();
+
+    long getStatus404Count();
+
+    long getStatus429Count();
+
+    long getStatus5xxCount();
+
+    long getStatusOtherCount();
+
+    long getTransportErrorCount();
+
+    int getApiInFlight();
+
+    long getCoalescedLookupCount();
+
+    int getLookupQueueDepth();
+
+    int getDbWriteQueueDepth();
+
+    double getScansPerSecond();
+
+    long getScannedCount();
+
+    long getScanFailedCount();
+
+    double getScanLatencyP50Millis();
+
+    double getScanLatencyP99Millis();
+
+    double getScanLatencyP999Millis();
+
+    long getDbFlushCount();
+
+    double getDbFlushP50Millis();
+
+    double getDbFlushP99Millis();
+
+    double getDbFlushMaxMillis();
+
+    String dump();
+
+    void reset();
+}
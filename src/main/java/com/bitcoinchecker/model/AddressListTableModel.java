@@ -4,7 +4,6 @@ import com.bitcoinchecker.db.DatabaseManager;
 
 import javax.swing.*;
 import javax.swing.table.AbstractTableModel;
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -12,11 +11,13 @@ import java.util.List;
  * Extends AbstractTableModel for JTable integration.
  * Handles:
  * - CRUD operations for addresses with database sync
- * - Editable address cells
- * - Duplicate checking
+ * - Editable address cells (edits that are not valid addresses are ignored)
+ * - Duplicate checking through a hash index (O(1) containsAddress)
+ * - Appends of rows already persisted (off the EDT), firing a single table event per batch
+ * Addresses are held in a compact AddressStore rather than as Strings.
  */
 public class AddressListTableModel extends AbstractTableModel {
-    private final List<String> addresses = new ArrayList<>();
+    private final AddressStore addresses = new AddressStore(true);
     private final String[] columnNames = {"Address"};
 
     @Override
@@ -56,7 +57,10 @@ public class AddressListTableModel extends AbstractTableModel {
     @Override
     public void setValueAt(Object value, int row, int col) {
         if (col == 0 && value instanceof String) {
-            String newAddress = (String) value;
+            String newAddress = AddressValidator.normalize((String) value);
+            if (newAddress == null) {
+                return;
+            }
             String oldAddress = addresses.get(row);
             updateAddress(row, newAddress);
             DatabaseManager.getInstance().updateAddress(oldAddress, newAddress);
@@ -64,7 +68,7 @@ public class AddressListTableModel extends AbstractTableModel {
     }
 
     public List<String> getAddresses() {
-        return new ArrayList<>(addresses);
+        return addresses.toList();
     }
 
     public void updateAddress(int row, String newAddress) {
@@ -76,19 +80,55 @@ public class AddressListTableModel extends AbstractTableModel {
         return addresses.get(row);
     }
 
-    public void addAddress(String address) {
-        addresses.add(address);
-        DatabaseManager.getInstance().saveAddress(address);
-        fireTableRowsInserted(addresses.size() - 1, addresses.size() - 1);
-    }
-
     public void removeAddress(int row) {
-        String address = addresses.remove(row);
+        String address = addresses.get(row);
+        addresses.remove(row);
         DatabaseManager.getInstance().deleteAddress(address);
         fireTableRowsDeleted(row, row);
     }
 
+    /**
+     * Appends addresses that are already persisted, firing one insert event for the whole batch.
+     */
+    public void appendAddresses(List<String> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        int firstRow = addresses.size();
+        for (String address : batch) {
+            addresses.add(address);
+        }
+        fireTableRowsInserted(firstRow, addresses.size() - 1);
+    }
+
+    /**
+     * Appends addresses that are already persisted and were collected off the EDT,
+     * firing one insert event for the whole batch.
+     */
+    public void appendAddresses(AddressStore batch) {
+        if (batch.size() == 0) {
+            return;
+        }
+        int firstRow = addresses.size();
+        addresses.addAll(batch);
+        fireTableRowsInserted(firstRow, addresses.size() - 1);
+    }
+
     public boolean containsAddress(String address) {
         return addresses.contains(address);
     }
+
+    /**
+     * Copy of the addresses without the hash index, for a scan to iterate off the EDT.
+     */
+    public AddressStore getAddressSnapshot() {
+        return addresses.copy(false);
+    }
+
+    /**
+     * Copy of the address store, for checking duplicates off the EDT.
+     */
+    public AddressStore getAddressIndexSnapshot() {
+        return addresses.copy();
+    }
 }
\ No newline at end of file
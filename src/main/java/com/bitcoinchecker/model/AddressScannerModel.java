@@ -1,7 +1,9 @@
 package com.bitcoinchecker.model;
 
-import com.bitcoinchecker.api.ChainAbuseClient;
+import com.bitcoinchecker.api.AddressLookup;
+import com.bitcoinchecker.api.LookupPriority;
 import com.bitcoinchecker.api.response.AddressResponse;
+import com.bitcoinchecker.metrics.ScanMetrics;
 import com.bitcoinchecker.observer.ScanObserver;
 import com.bitcoinchecker.util.ApiClientManager;
 import com.bitcoinchecker.util.Config;
@@ -12,44 +14,110 @@ import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 
 /**
  * Core model implementing scan logic and Observer pattern.
  * Features:
- * - Concurrent address scanning via ExecutorService
+ * - Address scanning with a bounded number of in-flight lookups
+ * - Streaming scans that pull input lazily, and prompt cancellation
+ * - Per-address latency and throughput recorded in ScanMetrics, with a summary logged per scan
+ * - Bulk scans run in the BULK lane; single addresses can be looked up interactively
+ * - Selectable execution mode: async pipeline, platform threads or virtual threads
+ * - Result handling and notifications on a small ExecutorService
  * - Observer notifications for scan events
  * - File loading capabilities
- * - API client integration
+ * - Local address validation before any lookup
+ * - API client integration (through the cached lookup chain)
  * - Error handling and logging
  */
 public class AddressScannerModel {
     private final List<BitcoinAddress> addresses;
     private final List<ScanObserver> observers;
     private final Logger logger;
-    private final ChainAbuseClient apiClient;
+    private final AddressLookup apiClient;
     private final ExecutorService executorService;
+    private final ScanExecutionMode executionMode;
+    private final ExecutorService lookupExecutor;
+    private final int maxInFlight;
+    private final int scanThreads;
+    private volatile ScanRun currentRun;
 
     public AddressScannerModel() {
+        this(ScanExecutionMode.fromString(Config.getInstance().getScanExecutionMode()));
+    }
+
+    public AddressScannerModel(ScanExecutionMode executionMode) {
+        this(executionMode, ApiClientManager.getInstance().getLookup(),
+                Config.getInstance().getScanMaxInFlight(), Config.getInstance().getScanThreads());
+    }
+
+    /**
+     * Model on an explicit lookup chain and limits, e.g. one pointed at a local stub for load tests.
+     */
+    public AddressScannerModel(ScanExecutionMode executionMode, AddressLookup apiClient,
+                               int maxInFlight, int scanThreads) {
         this.addresses = new ArrayList<>();
         this.observers = new ArrayList<>();
         this.logger = Logger.getInstance();
-        this.apiClient = ApiClientManager.getInstance().getClient();
+        this.apiClient = apiClient;
         this.executorService = Executors.newFixedThreadPool(5);
+        this.maxInFlight = maxInFlight;
+        this.scanThreads = scanThreads;
+
+        ExecutorService virtualExecutor = executionMode == ScanExecutionMode.VIRTUAL ? newVirtualThreadExecutor() : null;
+        if (executionMode == ScanExecutionMode.VIRTUAL && virtualExecutor == null) {
+            logger.log("Virtual threads are not available on this JVM, using platform threads", true);
+            executionMode = ScanExecutionMode.PLATFORM;
+        }
+        this.executionMode = executionMode;
+        this.lookupExecutor = switch (executionMode) {
+            case ASYNC -> null;
+            case PLATFORM -> Executors.newFixedThreadPool(scanThreads);
+            case VIRTUAL -> virtualExecutor;
+        };
+    }
+
+    /**
+     * Looked up reflectively so the app still runs on JVMs without virtual threads (pre-21).
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
     }
 
     public void addObserver(ScanObserver observer) {
         observers.add(observer);
     }
 
-    public void addAddress(String address) {
-        addresses.add(new BitcoinAddress(address));
+    /**
+     * Adds the normalized address to the scan list.
+     * Invalid addresses are logged and skipped so they never reach the API.
+     */
+    public boolean addAddress(String address) {
+        String normalized = AddressValidator.normalize(address);
+        if (normalized == null) {
+            logger.log("Skipping invalid address: " + address, true);
+            return false;
+        }
+        addresses.add(new BitcoinAddress(normalized));
+        return true;
     }
 
     public void loadAddressesFromFile(File file) throws IOException {
@@ -63,33 +131,224 @@ public class AddressScannerModel {
         }
     }
 
-    public void scanAddresses() {
+    /**
+     * Scans all addresses using the configured execution mode.
+     * At most maxInFlight lookups are outstanding at once, so request concurrency is
+     * set by configuration rather than by the number of threads.
+     * The returned future completes once every address has been processed or the scan
+     * was cancelled, whether or not some lookups failed (each failure is reported through
+     * onAddressFailed as it happens, and the run through onScanFailed once it has ended).
+     * Fails with IllegalStateException while another scan is running.
+     */
+    public CompletableFuture<Void> scanAddresses() {
+        List<BitcoinAddress> snapshot = new ArrayList<>(addresses);
+        return startRun(new ScanRun(snapshot.iterator(), snapshot, slotCount()));
+    }
+
+    /**
+     * Scans addresses pulled lazily from the source (e.g. the lines of a file) as lookup
+     * slots free up. Only the in-flight window is held, so heap use stays flat however
+     * long the input is. Entries are normalized here; blank ones are ignored and invalid ones
+     * logged, reported through onAddressSkipped and skipped, so callers pass raw input.
+     * Fails with IllegalStateException while another scan is running.
+     */
+    public CompletableFuture<Void> scanAddresses(Iterator<String> source) {
+        return startRun(new ScanRun(new ValidatedAddresses(source, this::notifyAddressSkipped), List.of(),
+                slotCount()));
+    }
+
+    /**
+     * Cancels the running scan: no further addresses are dispatched and in-flight lookups
+     * are abandoned (queued ones never reach the API). Observers get onScanCancelled once
+     * the window has drained. Returns false when no scan is running.
+     */
+    public boolean cancelScan() {
+        ScanRun run = currentRun;
+        if (run == null || run.done.isDone()) {
+            return false;
+        }
+        logger.log("cancelling scan", true);
+        run.cancel();
+        return true;
+    }
+
+    public boolean isScanning() {
+        ScanRun run = currentRun;
+        return run != null && !run.done.isDone();
+    }
+
+    private int slotCount() {
+        return executionMode == ScanExecutionMode.PLATFORM ? Math.min(maxInFlight, scanThreads) : maxInFlight;
+    }
+
+    private synchronized CompletableFuture<Void> startRun(ScanRun run) {
+        if (isScanning()) {
+            return CompletableFuture.failedFuture(new IllegalStateException("A scan is already running"));
+        }
+        currentRun = run;
         notifyStarted();
-        List<CompletableFuture<Void>> futures = new ArrayList<>();
-        AtomicBoolean hasError = new AtomicBoolean(false);
+        for (int slot = 0; slot < run.slots; slot++) {
+            int index = slot;
+            if (executionMode == ScanExecutionMode.ASYNC) {
+                executorService.execute(() -> scanNext(run, index));
+            } else {
+                lookupExecutor.execute(() -> scanBlocking(run, index));
+            }
+        }
+        return run.done;
+    }
+
+    /**
+     * Looks up a single address in the interactive lane, ahead of any running bulk scan,
+     * and reports the result to observers like a scanned address.
+     * The lookup is started on the scan executor, since a cache miss in memory reads the
+     * persistent cache tier before anything is queued; callers on the EDT never block.
+     */
+    public CompletableFuture<BitcoinAddress> scanAddressNow(String address) {
+        String normalized = AddressValidator.normalize(address);
+        if (normalized == null) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Invalid address: " + address));
+        }
+        BitcoinAddress result = new BitcoinAddress(normalized);
+        return CompletableFuture.supplyAsync(
+                () -> apiClient.checkAddressAsync(normalized, LookupPriority.INTERACTIVE), executorService)
+                .thenCompose(lookup -> lookup)
+                .handleAsync((response, error) -> {
+                    if (error != null) {
+                        Exception exception = toException(error);
+                        logger.log("Lookup failed for " + normalized + ": " + exception.getMessage(), true);
+                        notifyAddressFailed(result, exception);
+                        throw new CompletionException(exception);
+                    }
+                    result.setAbuseCount(response.getTotalReports());
+                    notifyAddressScanned(result);
+                    return result;
+                }, executorService);
+    }
+
+    /**
+     * Async mode: each completed lookup pulls the next address into its slot,
+     * keeping the window full without holding a thread per lookup.
+     */
+    private void scanNext(ScanRun run, int slot) {
+        BitcoinAddress address = pull(run);
+        if (address == null) {
+            finishSlot(run);
+            return;
+        }
+
+        notifyAddressDispatched(address);
+        long dispatched = System.nanoTime();
+        CompletableFuture<AddressResponse> lookup;
+        try {
+            lookup = apiClient.checkAddressAsync(address.getAddress(), LookupPriority.BULK);
+        } catch (RuntimeException e) {
+            lookup = CompletableFuture.failedFuture(e);
+        }
+        run.track(slot, lookup);
+
+        lookup.whenCompleteAsync((response, error) -> {
+            handleResult(run, address, dispatched, response, error);
+            scanNext(run, slot);
+        }, executorService);
+    }
 
-        for (BitcoinAddress address : addresses) {
-            CompletableFuture<Void> future = CompletableFuture.runAsync(() -> {
+    /**
+     * Platform and virtual modes: each slot is a task doing one blocking lookup at a time.
+     * A cancel interrupts the slot only while it waits on a lookup.
+     */
+    private void scanBlocking(ScanRun run, int slot) {
+        BitcoinAddress address;
+        while ((address = pull(run)) != null) {
+            notifyAddressDispatched(address);
+            long dispatched = System.nanoTime();
+            AddressResponse response = null;
+            Exception error = null;
+            if (run.enterLookup(slot)) {
                 try {
-                    AddressResponse response = apiClient.checkAddress(address.getAddress());
-                    address.setAbuseCount(response.getTotalReports());
-                    String reportUrl = String.format("https://www.chainabuse.com/address/%s", address.getAddress());
-                    address.setReportUrl(reportUrl);
-                    notifyAddressScanned(address);
+                    response = apiClient.checkAddress(address.getAddress(), LookupPriority.BULK);
                 } catch (Exception e) {
-                    hasError.set(true);
-                    notifyFailed(e);
+                    error = e;
+                } finally {
+                    run.exitLookup(slot);
                 }
-            }, executorService);
-            futures.add(future);
+            } else {
+                error = new CancellationException("Scan cancelled");
+            }
+            handleResult(run, address, dispatched, response, error);
         }
+        finishSlot(run);
+    }
 
-        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
-                .thenRun(() -> {
-                    if (!hasError.get()) {
-                        notifyCompleted();
-                    }
-                });
+    /**
+     * Next address of the run, or null once the source is exhausted, has failed or the run was cancelled.
+     */
+    private BitcoinAddress pull(ScanRun run) {
+        try {
+            return run.next();
+        } catch (RuntimeException e) {
+            run.sourceError = e;
+            run.hasError.set(true);
+            logger.log("Reading scan input failed: " + e.getMessage(), true);
+            return null;
+        }
+    }
+
+    /**
+     * Records one lookup outcome and notifies observers. Lookups abandoned by a cancel are
+     * not reported, so a checkpointed job keeps them for the next resume.
+     */
+    private void handleResult(ScanRun run, BitcoinAddress address, long dispatched,
+                              AddressResponse response, Throwable error) {
+        if (error == null) {
+            ScanMetrics.getInstance().addressScanned(System.nanoTime() - dispatched);
+            address.setAbuseCount(response.getTotalReports());
+            notifyAddressScanned(address);
+        } else if (!run.isCancelled()) {
+            ScanMetrics.getInstance().addressFailed(System.nanoTime() - dispatched);
+            Exception exception = toException(error);
+            run.failedLookups.incrementAndGet();
+            run.firstLookupError.compareAndSet(null, exception);
+            run.hasError.set(true);
+            notifyAddressFailed(address, exception);
+        }
+    }
+
+    /**
+     * Called when a slot runs dry; the last one to finish completes the run and reports
+     * how it ended (cancelled, failed or completed) exactly once.
+     */
+    private void finishSlot(ScanRun run) {
+        if (run.activeSlots.decrementAndGet() > 0) {
+            return;
+        }
+        if (run.isCancelled()) {
+            notifyCancelled();
+        } else if (run.hasError.get()) {
+            notifyFailed(runFailure(run));
+        } else {
+            notifyCompleted(run.results);
+        }
+        logger.log("scan metrics: " + ScanMetrics.getInstance().dump(), false);
+        run.done.complete(null);
+    }
+
+    /**
+     * Run-level failure: the input source error as is, otherwise a summary of the failed
+     * lookups with the first one as cause.
+     */
+    private static Exception runFailure(ScanRun run) {
+        if (run.sourceError != null) {
+            return run.sourceError;
+        }
+        Exception first = run.firstLookupError.get();
+        return new IOException(run.failedLookups.get() + " address lookups failed, first: "
+                + first.getMessage(), first);
+    }
+
+    private static Exception toException(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return cause instanceof Exception ? (Exception) cause : new RuntimeException(cause);
     }
 
     private void notifyStarted() {
@@ -105,10 +364,36 @@ public class AddressScannerModel {
         }
     }
 
-    private void notifyCompleted() {
+    private void notifyAddressDispatched(BitcoinAddress address) {
+        for (ScanObserver observer : observers) {
+            observer.onAddressDispatched(address);
+        }
+    }
+
+    private void notifyAddressFailed(BitcoinAddress address, Exception e) {
+        for (ScanObserver observer : observers) {
+            observer.onAddressFailed(address, e);
+        }
+    }
+
+    private void notifyAddressSkipped(String input) {
+        logger.log("Skipping invalid address: " + input, true);
+        for (ScanObserver observer : observers) {
+            observer.onAddressSkipped(input);
+        }
+    }
+
+    private void notifyCompleted(List<BitcoinAddress> results) {
         logger.log("scan completed successfully",true);
         for (ScanObserver observer : observers) {
-            observer.onScanCompleted(addresses);
+            observer.onScanCompleted(results);
+        }
+    }
+
+    private void notifyCancelled() {
+        logger.log("scan cancelled",true);
+        for (ScanObserver observer : observers) {
+            observer.onScanCancelled();
         }
     }
 
@@ -121,6 +406,13 @@ public class AddressScannerModel {
 
     public void shutdown() {
         executorService.shutdown();
+        if (lookupExecutor != null) {
+            lookupExecutor.shutdown();
+        }
+    }
+
+    public ScanExecutionMode getExecutionMode() {
+        return executionMode;
     }
 
     public List<BitcoinAddress> getAddresses() {
@@ -130,4 +422,131 @@ public class AddressScannerModel {
     public void clearAddresses() {
         addresses.clear();
     }
-}
\ No newline at end of file
+
+    /**
+     * State of a single scanAddresses() call shared by its lookup slots.
+     * Holds one entry per slot rather than per address, so its size is fixed by the window.
+     */
+    private static class ScanRun {
+        private final Iterator<BitcoinAddress> source;
+        private final List<BitcoinAddress> results;
+        private final int slots;
+        private final Future<?>[] lookups;
+        private final Thread[] waiting;
+        private final AtomicInteger activeSlots;
+        private final AtomicBoolean hasError = new AtomicBoolean(false);
+        private final AtomicInteger failedLookups = new AtomicInteger();
+        private final AtomicReference<Exception> firstLookupError = new AtomicReference<>();
+        private volatile RuntimeException sourceError;
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+        private boolean exhausted;
+        private volatile boolean cancelled;
+
+        ScanRun(Iterator<BitcoinAddress> source, List<BitcoinAddress> results, int slots) {
+            this.source = source;
+            this.results = results;
+            this.slots = slots;
+            this.lookups = new Future<?>[slots];
+            this.waiting = new Thread[slots];
+            this.activeSlots = new AtomicInteger(slots);
+        }
+
+        synchronized BitcoinAddress next() {
+            if (cancelled || exhausted) {
+                return null;
+            }
+            try {
+                if (source.hasNext()) {
+                    return source.next();
+                }
+                exhausted = true;
+                return null;
+            } catch (RuntimeException e) {
+                exhausted = true;
+                throw e;
+            }
+        }
+
+        boolean isCancelled() {
+            return cancelled;
+        }
+
+        synchronized void track(int slot, Future<?> lookup) {
+            if (cancelled) {
+                lookup.cancel(false);
+            } else {
+                lookups[slot] = lookup;
+            }
+        }
+
+        synchronized boolean enterLookup(int slot) {
+            if (cancelled) {
+                return false;
+            }
+            waiting[slot] = Thread.currentThread();
+            return true;
+        }
+
+        void exitLookup(int slot) {
+            synchronized (this) {
+                waiting[slot] = null;
+            }
+            // A cancel may have interrupted us just as the lookup returned; don't leak it
+            Thread.interrupted();
+        }
+
+        synchronized void cancel() {
+            cancelled = true;
+            for (int i = 0; i < slots; i++) {
+                if (lookups[i] != null) {
+                    lookups[i].cancel(false);
+                    lookups[i] = null;
+                }
+                if (waiting[i] != null) {
+                    waiting[i].interrupt();
+                }
+            }
+        }
+    }
+
+    /**
+     * Normalizes raw input lazily, skipping (and logging) invalid entries.
+     */
+    private static class ValidatedAddresses implements Iterator<BitcoinAddress> {
+        private final Iterator<String> source;
+        private final Consumer<String> skipped;
+        private BitcoinAddress next;
+
+        ValidatedAddresses(Iterator<String> source, Consumer<String> skipped) {
+            this.source = source;
+            this.skipped = skipped;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && source.hasNext()) {
+                String line = source.next();
+                if (line == null || line.isBlank()) {
+                    continue;
+                }
+                String normalized = AddressValidator.normalize(line);
+                if (normalized == null) {
+                    skipped.accept(line);
+                } else {
+                    next = new BitcoinAddress(normalized);
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public BitcoinAddress next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            BitcoinAddress address = next;
+            next = null;
+            return address;
+        }
+    }
+}
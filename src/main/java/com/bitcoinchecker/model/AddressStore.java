@@ -0,0 +1,359 @@
+package com.bitcoinchecker.model;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Compact in-memory list of addresses, backing the table models.
+ * Features:
+ * - One record per address in a shared byte arena: valid addresses in their binary form
+ *   (22 bytes for Base58, witness program for segwit), anything else as UTF-8
+ * - Rows are an int[] of arena offsets; address strings are only built when read
+ * - Optional open-addressing hash index (linear probing over arena offsets) for
+ *   contains() without an entry object per address
+ * - Records removed or replaced leave garbage that is compacted away once it
+ *   outweighs the live records
+ * About 25 bytes per Base58 address (plus 4-8 for the index), against well over 100
+ * for a String held in a list and a HashSet.
+ * Not thread-safe; the table models only use it on the EDT. A copy handed to another thread
+ * (e.g. to be scanned) may be read there once nothing modifies it any more.
+ */
+public class AddressStore implements Iterable<String> {
+    private static final int INITIAL_ROWS = 16;
+    private static final int INITIAL_ARENA = 512;
+    private static final int EMPTY = -1;
+    private static final double MAX_LOAD = 0.7;
+    private static final int MIN_COMPACT_GARBAGE = 1 << 16;
+    private static final int MAX_RECORD_LENGTH = 255;
+    private static final byte RAW = 0;
+
+    private final boolean indexed;
+    private byte[] arena = new byte[INITIAL_ARENA];
+    private int arenaSize;
+    private int garbage;
+    private int[] rows = new int[INITIAL_ROWS];
+    private int size;
+    private int[] slots;
+    private byte[] encoded = new byte[AddressValidator.BINARY_MAX_LENGTH];
+    private int encodedLength;
+
+    /**
+     * @param indexed whether to maintain the hash index used by contains() and addIfAbsent()
+     */
+    public AddressStore(boolean indexed) {
+        this.indexed = indexed;
+        if (indexed) {
+            slots = newSlots(INITIAL_ROWS);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String get(int row) {
+        int offset = rows[row];
+        return decode(arena, offset + 1, arena[offset] & 0xff);
+    }
+
+    /**
+     * Appends the address and returns its row.
+     */
+    public int add(String address) {
+        encode(address);
+        return append();
+    }
+
+    /**
+     * Appends the address unless the store already holds it.
+     */
+    public boolean addIfAbsent(String address) {
+        encode(address);
+        if (find(hash(encoded, 0, encodedLength)) != EMPTY) {
+            return false;
+        }
+        append();
+        return true;
+    }
+
+    public boolean contains(String address) {
+        encode(address);
+        return find(hash(encoded, 0, encodedLength)) != EMPTY;
+    }
+
+    public void set(int row, String address) {
+        encode(address);
+        int old = rows[row];
+        unindex(old);
+        garbage += recordLength(old);
+        int offset = write();
+        rows[row] = offset;
+        index(offset);
+        compactIfWasteful();
+    }
+
+    public void remove(int row) {
+        int old = rows[row];
+        unindex(old);
+        garbage += recordLength(old);
+        System.arraycopy(rows, row + 1, rows, row, size - row - 1);
+        size--;
+        compactIfWasteful();
+    }
+
+    public void clear() {
+        arena = new byte[INITIAL_ARENA];
+        arenaSize = 0;
+        garbage = 0;
+        rows = new int[INITIAL_ROWS];
+        size = 0;
+        if (indexed) {
+            slots = newSlots(INITIAL_ROWS);
+        }
+    }
+
+    /**
+     * Appends every address of the other store, copying the stored records without decoding them.
+     */
+    public void addAll(AddressStore other) {
+        for (int i = 0; i < other.size; i++) {
+            int offset = other.rows[i];
+            encodedLength = other.arena[offset] & 0xff;
+            if (encoded.length < encodedLength) {
+                encoded = new byte[MAX_RECORD_LENGTH];
+            }
+            System.arraycopy(other.arena, offset + 1, encoded, 0, encodedLength);
+            append();
+        }
+    }
+
+    /**
+     * Independent copy, e.g. for a background task to check against.
+     */
+    public AddressStore copy() {
+        return copy(indexed);
+    }
+
+    /**
+     * Independent copy with or without the hash index; a scan that only iterates needs none.
+     */
+    public AddressStore copy(boolean withIndex) {
+        AddressStore copy = new AddressStore(withIndex);
+        copy.arena = Arrays.copyOf(arena, arenaSize);
+        copy.arenaSize = arenaSize;
+        copy.garbage = garbage;
+        copy.rows = Arrays.copyOf(rows, Math.max(size, INITIAL_ROWS));
+        copy.size = size;
+        if (withIndex && indexed) {
+            copy.slots = slots.clone();
+        } else if (withIndex) {
+            copy.rehash(Integer.highestOneBit(Math.max(size, INITIAL_ROWS)) << 2);
+        }
+        return copy;
+    }
+
+    /**
+     * Addresses in row order, decoded one at a time.
+     */
+    @Override
+    public Iterator<String> iterator() {
+        return new Iterator<>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < size;
+            }
+
+            @Override
+            public String next() {
+                if (next >= size) {
+                    throw new NoSuchElementException();
+                }
+                return get(next++);
+            }
+        };
+    }
+
+    public List<String> toList() {
+        List<String> addresses = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            addresses.add(get(i));
+        }
+        return addresses;
+    }
+
+    /**
+     * Encodes the address into the encoded scratch buffer: kind byte and payload.
+     * Addresses without a binary form are kept as UTF-8, up to 254 bytes.
+     */
+    private void encode(String address) {
+        int length = AddressValidator.toBinary(address, encoded, 0);
+        if (length < 0) {
+            byte[] utf8 = address.getBytes(StandardCharsets.UTF_8);
+            if (utf8.length + 1 > MAX_RECORD_LENGTH) {
+                throw new IllegalArgumentException("Address too long: " + address.length() + " characters");
+            }
+            if (encoded.length < utf8.length + 1) {
+                encoded = new byte[MAX_RECORD_LENGTH];
+            }
+            encoded[0] = RAW;
+            System.arraycopy(utf8, 0, encoded, 1, utf8.length);
+            length = utf8.length + 1;
+        }
+        encodedLength = length;
+    }
+
+    private static String decode(byte[] bytes, int offset, int length) {
+        if (bytes[offset] == RAW) {
+            return new String(bytes, offset + 1, length - 1, StandardCharsets.UTF_8);
+        }
+        return AddressValidator.fromBinary(bytes, offset, length);
+    }
+
+    private int append() {
+        int offset = write();
+        if (size == rows.length) {
+            rows = Arrays.copyOf(rows, size + (size >> 1));
+        }
+        rows[size++] = offset;
+        index(offset);
+        return size - 1;
+    }
+
+    /**
+     * Writes the encoded record (length byte, then kind and payload) at the end of the arena.
+     */
+    private int write() {
+        int needed = arenaSize + encodedLength + 1;
+        if (needed > arena.length) {
+            arena = Arrays.copyOf(arena, Math.max(needed, arena.length + (arena.length >> 1)));
+        }
+        int offset = arenaSize;
+        arena[offset] = (byte) encodedLength;
+        System.arraycopy(encoded, 0, arena, offset + 1, encodedLength);
+        arenaSize = needed;
+        return offset;
+    }
+
+    private int recordLength(int offset) {
+        return (arena[offset] & 0xff) + 1;
+    }
+
+    private void compactIfWasteful() {
+        if (garbage < MIN_COMPACT_GARBAGE || garbage < arenaSize - garbage) {
+            return;
+        }
+        byte[] compacted = new byte[Math.max(INITIAL_ARENA, arenaSize - garbage)];
+        int position = 0;
+        for (int i = 0; i < size; i++) {
+            int length = recordLength(rows[i]);
+            System.arraycopy(arena, rows[i], compacted, position, length);
+            rows[i] = position;
+            position += length;
+        }
+        arena = compacted;
+        arenaSize = position;
+        garbage = 0;
+        if (indexed) {
+            rehash(slots.length);
+        }
+    }
+
+    private static int hash(byte[] bytes, int offset, int length) {
+        int hash = 1;
+        for (int i = offset; i < offset + length; i++) {
+            hash = 31 * hash + bytes[i];
+        }
+        // Spread the bits, since the table index uses only the low ones
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        return hash ^ (hash >>> 13);
+    }
+
+    private int hashRecord(int offset) {
+        return hash(arena, offset + 1, arena[offset] & 0xff);
+    }
+
+    /**
+     * Returns the arena offset of a record equal to the encoded one, or EMPTY.
+     */
+    private int find(int hash) {
+        if (!indexed) {
+            throw new IllegalStateException("Address store is not indexed");
+        }
+        int mask = slots.length - 1;
+        for (int i = hash & mask; ; i = (i + 1) & mask) {
+            int offset = slots[i];
+            if (offset == EMPTY) {
+                return EMPTY;
+            }
+            if ((arena[offset] & 0xff) == encodedLength
+                    && Arrays.equals(arena, offset + 1, offset + 1 + encodedLength, encoded, 0, encodedLength)) {
+                return offset;
+            }
+        }
+    }
+
+    private void index(int offset) {
+        if (!indexed) {
+            return;
+        }
+        if (size > slots.length * MAX_LOAD) {
+            rehash(slots.length << 1);
+        } else {
+            insert(offset);
+        }
+    }
+
+    private void insert(int offset) {
+        int mask = slots.length - 1;
+        int i = hashRecord(offset) & mask;
+        while (slots[i] != EMPTY) {
+            i = (i + 1) & mask;
+        }
+        slots[i] = offset;
+    }
+
+    private void rehash(int capacity) {
+        slots = newSlots(capacity);
+        for (int i = 0; i < size; i++) {
+            insert(rows[i]);
+        }
+    }
+
+    /**
+     * Removes the record at offset from the index, shifting later entries of its probe run back.
+     */
+    private void unindex(int offset) {
+        if (!indexed) {
+            return;
+        }
+        int mask = slots.length - 1;
+        int hole = hashRecord(offset) & mask;
+        while (slots[hole] != offset) {
+            hole = (hole + 1) & mask;
+        }
+        slots[hole] = EMPTY;
+        for (int i = (hole + 1) & mask; slots[i] != EMPTY; i = (i + 1) & mask) {
+            int home = hashRecord(slots[i]) & mask;
+            // Move the entry into the hole unless its home lies cyclically in (hole, i]
+            boolean reachable = hole <= i ? (home > hole && home <= i) : (home > hole || home <= i);
+            if (!reachable) {
+                slots[hole] = slots[i];
+                slots[i] = EMPTY;
+                hole = i;
+            }
+        }
+    }
+
+    private static int[] newSlots(int capacity) {
+        int[] slots = new int[capacity];
+        Arrays.fill(slots, EMPTY);
+        return slots;
+    }
+}
@@ -1,10 +1,10 @@
 package com.bitcoinchecker.model;
 
-import com.bitcoinchecker.db.DatabaseManager;
-
 import javax.swing.table.AbstractTableModel;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.function.IntFunction;
 
 /**
  * TableModel for displaying scan results.
@@ -13,14 +13,45 @@ import java.util.List;
  * - Abuse counts
  * - Report URLs
  * Handles data updates and table refresh.
+ * Sorting and filtering are done in the model on primitive index arrays, so the JTable
+ * stays virtualized (it only ever asks for the visible rows) even at hundreds of thousands of rows:
+ * - The sort order is an int[] permutation of all rows; new results are sorted among
+ *   themselves and merged in by binary search instead of re-sorting everything
+ * - The filtered view (minimum abuse count, address prefix) is a second int[] in sort order;
+ *   narrowing a filter only rescans the current view, and new results are merged into it
+ * Results are held compactly: addresses in an AddressStore, abuse counts in an int[],
+ * and report URLs built from the address when a cell is shown.
+ * Must only be used on the EDT.
+ * Persistence is handled separately by ScanResultWriter, off the EDT.
  */
 public class AddressTableModel extends AbstractTableModel {
-    private final List<BitcoinAddress> addresses = new ArrayList<>();
+    public static final int ADDRESS_COLUMN = 0;
+    public static final int ABUSE_COUNT_COLUMN = 1;
+    public static final int REPORT_URL_COLUMN = 2;
+    private static final int UNSORTED = -1;
+
+    private final AddressStore addresses = new AddressStore(false);
+    private int[] abuseCounts = new int[16];
     private final String[] columnNames = {"Address", "# of abuses", "Link"};
+    private int[] sorted = new int[16];
+    private int[] view = new int[16];
+    private int viewSize;
+    private int sortColumn = UNSORTED;
+    private boolean descending;
+    private int minAbuseCount;
+    private String addressPrefix = "";
+
+    /**
+     * Row comparison on indexes into the address list, without boxing.
+     */
+    @FunctionalInterface
+    private interface IndexComparator {
+        int compare(int left, int right);
+    }
 
     @Override
     public int getRowCount() {
-        return addresses.size();
+        return viewSize;
     }
 
     @Override
@@ -45,30 +76,299 @@ public class AddressTableModel extends AbstractTableModel {
 
     @Override
     public Object getValueAt(int row, int column) {
-        BitcoinAddress address = addresses.get(row);
+        int index = view[row];
         return switch (column) {
-            case 0 -> address.getAddress();
-            case 1 -> address.getAbuseCount();
-            case 2 -> address.getReportUrl();
+            case 0 -> addresses.get(index);
+            case 1 -> abuseCounts[index];
+            case 2 -> BitcoinAddress.reportUrlFor(addresses.get(index));
             default -> null;
         };
     }
 
     public void addAddress(BitcoinAddress address) {
-        addresses.add(address);
-        DatabaseManager.getInstance().saveScanResult(address);
-        fireTableRowsInserted(addresses.size() - 1, addresses.size() - 1);
+        addAddresses(List.of(address));
+    }
+
+    /**
+     * Appends a batch of results. Unsorted, the visible part is appended with one ranged
+     * insert event; sorted, it is merged into the existing order.
+     */
+    public void addAddresses(List<BitcoinAddress> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        int first = addresses.size();
+        abuseCounts = ensureCapacity(abuseCounts, first + batch.size());
+        for (BitcoinAddress address : batch) {
+            abuseCounts[addresses.add(address.getAddress())] = address.getAbuseCount();
+        }
+        // The batch still has its address strings; only existing rows need decoding to compare
+        rowsAdded(first, index -> index >= first
+                ? batch.get(index - first).getAddress() : addresses.get(index));
+    }
+
+    /**
+     * Appends results collected elsewhere, e.g. streamed from the database off the EDT:
+     * the addresses of the store with the abuse counts of the same rows.
+     */
+    public void addAddresses(AddressStore batch, int[] batchAbuseCounts) {
+        if (batch.size() == 0) {
+            return;
+        }
+        int first = addresses.size();
+        abuseCounts = ensureCapacity(abuseCounts, first + batch.size());
+        System.arraycopy(batchAbuseCounts, 0, abuseCounts, first, batch.size());
+        addresses.addAll(batch);
+        rowsAdded(first, decodeAll());
+    }
+
+    /**
+     * Sorts the rows from first on among themselves, merges them into the sort order and the
+     * filtered view and fires the table event.
+     */
+    private void rowsAdded(int first, IntFunction<String> addressOf) {
+        int[] added = new int[addresses.size() - first];
+        for (int i = 0; i < added.length; i++) {
+            added[i] = first + i;
+        }
+        IndexComparator order = comparator(addressOf);
+        if (order != null) {
+            sortIndexes(added, added.length, order);
+        }
+        sorted = merge(sorted, first, added, added.length, order);
+
+        int visible = 0;
+        for (int index : added) {
+            if (matchesFilter(index)) {
+                added[visible++] = index;
+            }
+        }
+        if (visible == 0) {
+            return;
+        }
+        int firstRow = viewSize;
+        view = merge(view, viewSize, added, visible, order);
+        viewSize += visible;
+        if (order == null) {
+            fireTableRowsInserted(firstRow, viewSize - 1);
+        } else {
+            fireTableDataChanged();
+        }
     }
 
     public void clear() {
-        int size = addresses.size();
         addresses.clear();
-        if (size > 0) {
-            fireTableRowsDeleted(0, size - 1);
+        viewSize = 0;
+        fireTableDataChanged();
+    }
+
+    /**
+     * Sorts by the given column; UNSORTED (-1) restores insertion order.
+     * Ties keep insertion order.
+     */
+    public void sortBy(int column, boolean descending) {
+        this.sortColumn = column;
+        this.descending = descending;
+        int size = addresses.size();
+        sorted = ensureCapacity(sorted, size);
+        for (int i = 0; i < size; i++) {
+            sorted[i] = i;
+        }
+        IndexComparator order = comparator(decodeAll());
+        if (order != null) {
+            sortIndexes(sorted, size, order);
+        }
+        rebuildView(false);
+    }
+
+    /**
+     * Clicking the same column flips the direction; a new column starts with the largest
+     * abuse counts first, or alphabetically for the text columns.
+     */
+    public void toggleSort(int column) {
+        if (column == sortColumn) {
+            sortBy(column, !descending);
+        } else {
+            sortBy(column, column == ABUSE_COUNT_COLUMN);
+        }
+    }
+
+    public int getSortColumn() {
+        return sortColumn;
+    }
+
+    public boolean isSortDescending() {
+        return descending;
+    }
+
+    /**
+     * Shows only results with at least minAbuseCount reports whose address starts with the
+     * prefix (case-insensitive). A filter that narrows the current one only rescans the
+     * rows already visible.
+     */
+    public void setFilter(int minAbuseCount, String addressPrefix) {
+        String prefix = addressPrefix == null ? "" : addressPrefix.trim();
+        boolean narrows = minAbuseCount >= this.minAbuseCount
+                && prefix.regionMatches(true, 0, this.addressPrefix, 0, this.addressPrefix.length());
+        if (minAbuseCount == this.minAbuseCount && prefix.equalsIgnoreCase(this.addressPrefix)) {
+            return;
         }
+        this.minAbuseCount = minAbuseCount;
+        this.addressPrefix = prefix;
+        rebuildView(narrows);
     }
 
+    /**
+     * Number of results regardless of the filter.
+     */
+    public int getTotalRowCount() {
+        return addresses.size();
+    }
+
+    /**
+     * All results in insertion order, regardless of sorting and filtering.
+     */
     public List<BitcoinAddress> getAddresses() {
-        return new ArrayList<>(addresses);
+        List<BitcoinAddress> results = new ArrayList<>(addresses.size());
+        for (int i = 0; i < addresses.size(); i++) {
+            BitcoinAddress result = new BitcoinAddress(addresses.get(i));
+            result.setAbuseCount(abuseCounts[i]);
+            results.add(result);
+        }
+        return results;
+    }
+
+    private void rebuildView(boolean fromCurrentView) {
+        int[] source = fromCurrentView ? view : sorted;
+        int sourceSize = fromCurrentView ? viewSize : addresses.size();
+        int[] target = fromCurrentView ? view : ensureCapacity(view, sourceSize);
+        int size = 0;
+        // In place is safe when narrowing: the write position never passes the read position
+        for (int i = 0; i < sourceSize; i++) {
+            int index = source[i];
+            if (matchesFilter(index)) {
+                target[size++] = index;
+            }
+        }
+        view = target;
+        viewSize = size;
+        fireTableDataChanged();
+    }
+
+    private boolean matchesFilter(int index) {
+        if (abuseCounts[index] < minAbuseCount) {
+            return false;
+        }
+        return addressPrefix.isEmpty()
+                || addresses.get(index).regionMatches(true, 0, addressPrefix, 0, addressPrefix.length());
+    }
+
+    /**
+     * Decodes every address for a full sort by address, so each is decoded once rather than
+     * on every comparison; the strings are dropped again afterwards.
+     */
+    private IntFunction<String> decodeAll() {
+        if (sortColumn != ADDRESS_COLUMN && sortColumn != REPORT_URL_COLUMN) {
+            return addresses::get;
+        }
+        String[] decoded = new String[addresses.size()];
+        for (int i = 0; i < decoded.length; i++) {
+            decoded[i] = addresses.get(i);
+        }
+        return index -> decoded[index];
+    }
+
+    private IndexComparator comparator(IntFunction<String> addressOf) {
+        IndexComparator byColumn = switch (sortColumn) {
+            // Report URLs are the address behind a fixed prefix, so they sort the same way
+            case ADDRESS_COLUMN, REPORT_URL_COLUMN -> (left, right) ->
+                    addressOf.apply(left).compareTo(addressOf.apply(right));
+            case ABUSE_COUNT_COLUMN -> (left, right) -> Integer.compare(abuseCounts[left], abuseCounts[right]);
+            default -> null;
+        };
+        if (byColumn == null) {
+            return null;
+        }
+        boolean reverse = descending;
+        return (left, right) -> {
+            int result = byColumn.compare(left, right);
+            if (result != 0) {
+                return reverse ? -result : result;
+            }
+            return Integer.compare(left, right);
+        };
+    }
+
+    /**
+     * Merges the sorted run added[0, addedSize) into base[0, baseSize), growing base if needed.
+     * Without an order the run is simply appended.
+     */
+    private static int[] merge(int[] base, int baseSize, int[] added, int addedSize, IndexComparator order) {
+        int[] target = ensureCapacity(base, baseSize + addedSize);
+        if (order == null) {
+            System.arraycopy(added, 0, target, baseSize, addedSize);
+            return target;
+        }
+        // Merge from the back so the existing rows can stay in the same array; each new row's
+        // position is binary searched and the rows after it move as one block, so a small batch
+        // costs O(k log n) comparisons plus one array shift
+        int end = baseSize;
+        for (int j = addedSize - 1; j >= 0; j--) {
+            int position = insertionPoint(target, end, added[j], order);
+            System.arraycopy(target, position, target, position + j + 1, end - position);
+            target[position + j] = added[j];
+            end = position;
+        }
+        return target;
+    }
+
+    /**
+     * First position in indexes[0, size) that sorts after index (the order has no ties).
+     */
+    private static int insertionPoint(int[] indexes, int size, int index, IndexComparator order) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (order.compare(indexes[mid], index) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Stable merge sort of indexes[0, size).
+     */
+    private static void sortIndexes(int[] indexes, int size, IndexComparator order) {
+        int[] buffer = new int[size];
+        for (int width = 1; width < size; width <<= 1) {
+            for (int low = 0; low < size - width; low += width << 1) {
+                int mid = low + width;
+                int high = Math.min(low + (width << 1), size);
+                if (order.compare(indexes[mid - 1], indexes[mid]) <= 0) {
+                    continue;
+                }
+                System.arraycopy(indexes, low, buffer, low, high - low);
+                int left = low;
+                int right = mid;
+                for (int k = low; k < high; k++) {
+                    if (right >= high || (left < mid && order.compare(buffer[left], buffer[right]) <= 0)) {
+                        indexes[k] = buffer[left++];
+                    } else {
+                        indexes[k] = buffer[right++];
+                    }
+                }
+            }
+        }
+    }
+
+    private static int[] ensureCapacity(int[] array, int size) {
+        if (array.length >= size) {
+            return array;
+        }
+        return Arrays.copyOf(array, Math.max(size, array.length + (array.length >> 1)));
     }
-}
\ No newline at end of file
+}
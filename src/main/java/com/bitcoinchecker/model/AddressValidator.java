@@ -0,0 +1,486 @@
+package com.bitcoinchecker.model;
+
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Local validation and normalization of mainnet Bitcoin addresses.
+ * Supports:
+ * - Base58Check P2PKH (1...) and P2SH (3...) with double SHA-256 checksum
+ * - Bech32 segwit v0 (P2WPKH / P2WSH) and Bech32m segwit v1+ (P2TR etc.), BIP-173 / BIP-350
+ * - Compact binary form of canonical addresses (version and hash, or witness program),
+ *   used by AddressStore; the text form is re-encoded from it on demand
+ * Validation does not allocate per call: decoding uses thread-local scratch buffers
+ * and digests are written into them in place. Only normalize() may allocate,
+ * when a bech32 address has to be lower-cased.
+ */
+public final class AddressValidator {
+    private static final String BASE58_ALPHABET = "123456789ABCDEFGHJKLMNPQRSTUVWXYZabcdefghijkmnopqrstuvwxyz";
+    private static final String BECH32_CHARSET = "qpzry9x8gf2tvdw0s3jn54khce6mua7l";
+    private static final byte[] BASE58_INDEX = new byte[128];
+    private static final byte[] BECH32_INDEX = new byte[128];
+    private static final int[] BECH32_GENERATOR = {0x3b6a57b2, 0x26508e6d, 0x1ea119fa, 0x3d4233dd, 0x2a1462b3};
+    private static final int BECH32_CONST = 1;
+    private static final int BECH32M_CONST = 0x2bc830a3;
+
+    private static final int BASE58_PAYLOAD_LENGTH = 25;
+    private static final int LIMB_COUNT = 7;
+    private static final int BASE58_MIN_LENGTH = 26;
+    private static final int BASE58_MAX_LENGTH = 35;
+    private static final int BECH32_MAX_LENGTH = 90;
+    private static final int BECH32_CHECKSUM_LENGTH = 6;
+    private static final int VERSION_P2PKH = 0x00;
+    private static final int VERSION_P2SH = 0x05;
+    private static final String SEGWIT_HRP = "bc";
+
+    /** Longest binary form: kind, witness version and a 40-byte program. */
+    static final int BINARY_MAX_LENGTH = 42;
+    static final byte BINARY_BASE58 = 1;
+    static final byte BINARY_SEGWIT = 2;
+    private static final int BASE58_HASH_LENGTH = BASE58_PAYLOAD_LENGTH - 4;
+    private static final long BASE58_CHUNK = 58L * 58 * 58 * 58 * 58;
+    private static final int BASE58_CHUNK_DIGITS = 5;
+
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    static {
+        Arrays.fill(BASE58_INDEX, (byte) -1);
+        for (int i = 0; i < BASE58_ALPHABET.length(); i++) {
+            BASE58_INDEX[BASE58_ALPHABET.charAt(i)] = (byte) i;
+        }
+        Arrays.fill(BECH32_INDEX, (byte) -1);
+        for (int i = 0; i < BECH32_CHARSET.length(); i++) {
+            BECH32_INDEX[BECH32_CHARSET.charAt(i)] = (byte) i;
+            BECH32_INDEX[Character.toUpperCase(BECH32_CHARSET.charAt(i))] = (byte) i;
+        }
+    }
+
+    /**
+     * Address kinds recognized by the validator.
+     */
+    public enum AddressType {
+        P2PKH,
+        P2SH,
+        P2WPKH,
+        P2WSH,
+        P2TR,
+        WITNESS_UNKNOWN
+    }
+
+    private AddressValidator() {
+    }
+
+    public static boolean isValid(CharSequence address) {
+        return classify(address) != null;
+    }
+
+    /**
+     * Returns the address type, or null when the address is not a valid mainnet address.
+     */
+    public static AddressType classify(CharSequence address) {
+        if (address == null) {
+            return null;
+        }
+        int length = address.length();
+        if (length >= 4 && (address.charAt(2) == '1')
+                && (address.charAt(0) == 'b' || address.charAt(0) == 'B')
+                && (address.charAt(1) == 'c' || address.charAt(1) == 'C')) {
+            return classifyBech32(address);
+        }
+        return classifyBase58(address);
+    }
+
+    /**
+     * Trims the input and returns the canonical form (bech32 in lower case),
+     * or null when it is not a valid address.
+     */
+    public static String normalize(String address) {
+        if (address == null) {
+            return null;
+        }
+        String trimmed = address.trim();
+        AddressType type = classify(trimmed);
+        if (type == null) {
+            return null;
+        }
+        if (type == AddressType.P2PKH || type == AddressType.P2SH) {
+            return trimmed;
+        }
+        return trimmed.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Writes the binary form of a canonical address (as returned by normalize) to out at offset
+     * and returns its length, or -1 when there is none (invalid, or upper-case bech32).
+     * Base58: kind, version byte and 20-byte hash (checksum dropped).
+     * Segwit: kind, witness version and program.
+     */
+    static int toBinary(CharSequence address, byte[] out, int offset) {
+        AddressType type = classify(address);
+        if (type == null) {
+            return -1;
+        }
+        if (type == AddressType.P2PKH || type == AddressType.P2SH) {
+            // classify() left the decoded payload in the scratch buffer
+            out[offset] = BINARY_BASE58;
+            System.arraycopy(SCRATCH.get().payload, 0, out, offset + 1, BASE58_HASH_LENGTH);
+            return 1 + BASE58_HASH_LENGTH;
+        }
+
+        // Mixed case is invalid, so an upper-case prefix means an upper-case address
+        if (address.charAt(0) == 'B') {
+            return -1;
+        }
+        int length = address.length();
+        int separator = SEGWIT_HRP.length();
+        int position = offset;
+        out[position++] = BINARY_SEGWIT;
+        int accumulator = 0;
+        int bits = 0;
+        for (int i = separator + 1; i < length - BECH32_CHECKSUM_LENGTH; i++) {
+            int value = BECH32_INDEX[address.charAt(i)];
+            if (i == separator + 1) {
+                out[position++] = (byte) value;
+                continue;
+            }
+            accumulator = ((accumulator << 5) | value) & 0xfff;
+            bits += 5;
+            if (bits >= 8) {
+                bits -= 8;
+                out[position++] = (byte) (accumulator >>> bits);
+            }
+        }
+        return position - offset;
+    }
+
+    /**
+     * Re-encodes the text form of a binary address written by toBinary.
+     */
+    static String fromBinary(byte[] in, int offset, int length) {
+        if (in[offset] == BINARY_BASE58) {
+            return encodeBase58(in, offset + 1);
+        }
+        return encodeBech32(in, offset + 1, length - 1);
+    }
+
+    private static String encodeBase58(byte[] in, int offset) {
+        Scratch scratch = SCRATCH.get();
+        byte[] payload = scratch.payload;
+        byte[] hash = scratch.hash;
+        System.arraycopy(in, offset, payload, 0, BASE58_HASH_LENGTH);
+        MessageDigest sha256 = scratch.sha256;
+        try {
+            sha256.update(payload, 0, BASE58_HASH_LENGTH);
+            sha256.digest(hash, 0, 32);
+            sha256.update(hash, 0, 32);
+            sha256.digest(hash, 0, 32);
+        } catch (DigestException e) {
+            throw new IllegalStateException("SHA-256 digest failed", e);
+        }
+        System.arraycopy(hash, 0, payload, BASE58_HASH_LENGTH, 4);
+
+        // Repeated division of the payload, as 32-bit limbs, by 58^5; each remainder gives five
+        // digits, least significant first
+        int[] limbs = scratch.limbs;
+        limbs[0] = payload[0] & 0xff;
+        for (int j = 1; j < LIMB_COUNT; j++) {
+            int at = 1 + (j - 1) * 4;
+            limbs[j] = (payload[at] & 0xff) << 24 | (payload[at + 1] & 0xff) << 16
+                    | (payload[at + 2] & 0xff) << 8 | (payload[at + 3] & 0xff);
+        }
+        char[] digits = scratch.digits;
+        int position = digits.length;
+        int start = 0;
+        while (start < LIMB_COUNT && limbs[start] == 0) {
+            start++;
+        }
+        while (start < LIMB_COUNT) {
+            long remainder = 0;
+            for (int j = start; j < LIMB_COUNT; j++) {
+                long value = (remainder << 32) | (limbs[j] & 0xffffffffL);
+                limbs[j] = (int) (value / BASE58_CHUNK);
+                remainder = value % BASE58_CHUNK;
+            }
+            while (start < LIMB_COUNT && limbs[start] == 0) {
+                start++;
+            }
+            for (int i = 0; i < BASE58_CHUNK_DIGITS; i++) {
+                digits[--position] = BASE58_ALPHABET.charAt((int) (remainder % 58));
+                remainder /= 58;
+            }
+        }
+        // Drop the zero digits padding the most significant chunk, then add one '1' per leading zero byte
+        while (position < digits.length && digits[position] == '1') {
+            position++;
+        }
+        int leadingZeros = 0;
+        while (leadingZeros < BASE58_PAYLOAD_LENGTH && payload[leadingZeros] == 0) {
+            leadingZeros++;
+        }
+        for (int i = 0; i < leadingZeros; i++) {
+            digits[--position] = '1';
+        }
+        return new String(digits, position, digits.length - position);
+    }
+
+    private static String encodeBech32(byte[] in, int offset, int length) {
+        int witnessVersion = in[offset];
+        char[] chars = SCRATCH.get().digits;
+        int position = 0;
+        int checksum = 1;
+        for (int i = 0; i < SEGWIT_HRP.length(); i++) {
+            checksum = polymodStep(checksum) ^ (SEGWIT_HRP.charAt(i) >> 5);
+        }
+        checksum = polymodStep(checksum);
+        for (int i = 0; i < SEGWIT_HRP.length(); i++) {
+            char c = SEGWIT_HRP.charAt(i);
+            checksum = polymodStep(checksum) ^ (c & 31);
+            chars[position++] = c;
+        }
+        chars[position++] = '1';
+        checksum = polymodStep(checksum) ^ witnessVersion;
+        chars[position++] = BECH32_CHARSET.charAt(witnessVersion);
+
+        // Regroup program bytes into 5-bit values, zero-padding the last one
+        int accumulator = 0;
+        int bits = 0;
+        for (int i = offset + 1; i < offset + length; i++) {
+            accumulator = ((accumulator << 8) | (in[i] & 0xff)) & 0xfff;
+            bits += 8;
+            while (bits >= 5) {
+                bits -= 5;
+                int value = (accumulator >>> bits) & 31;
+                checksum = polymodStep(checksum) ^ value;
+                chars[position++] = BECH32_CHARSET.charAt(value);
+            }
+        }
+        if (bits > 0) {
+            int value = (accumulator << (5 - bits)) & 31;
+            checksum = polymodStep(checksum) ^ value;
+            chars[position++] = BECH32_CHARSET.charAt(value);
+        }
+
+        for (int i = 0; i < BECH32_CHECKSUM_LENGTH; i++) {
+            checksum = polymodStep(checksum);
+        }
+        checksum ^= witnessVersion == 0 ? BECH32_CONST : BECH32M_CONST;
+        for (int i = 0; i < BECH32_CHECKSUM_LENGTH; i++) {
+            chars[position++] = BECH32_CHARSET.charAt((checksum >>> (5 * (BECH32_CHECKSUM_LENGTH - 1 - i))) & 31);
+        }
+        return new String(chars, 0, position);
+    }
+
+    private static AddressType classifyBase58(CharSequence address) {
+        int length = address.length();
+        if (length < BASE58_MIN_LENGTH || length > BASE58_MAX_LENGTH) {
+            return null;
+        }
+
+        // Decode into 32-bit limbs (224 bits), then unpack the low 25 bytes as the payload
+        Scratch scratch = SCRATCH.get();
+        int[] limbs = scratch.limbs;
+        Arrays.fill(limbs, 0);
+        int leadingOnes = 0;
+        boolean leading = true;
+        for (int i = 0; i < length; i++) {
+            char c = address.charAt(i);
+            int digit = c < 128 ? BASE58_INDEX[c] : -1;
+            if (digit < 0) {
+                return null;
+            }
+            if (leading && digit == 0) {
+                leadingOnes++;
+            } else {
+                leading = false;
+            }
+            long carry = digit;
+            for (int j = LIMB_COUNT - 1; j >= 0; j--) {
+                carry += 58L * (limbs[j] & 0xffffffffL);
+                limbs[j] = (int) carry;
+                carry >>>= 32;
+            }
+            if (carry != 0) {
+                return null;
+            }
+        }
+        if ((limbs[0] >>> 8) != 0) {
+            return null;
+        }
+
+        byte[] payload = scratch.payload;
+        payload[0] = (byte) limbs[0];
+        for (int j = 1; j < LIMB_COUNT; j++) {
+            int limb = limbs[j];
+            int offset = 1 + (j - 1) * 4;
+            payload[offset] = (byte) (limb >>> 24);
+            payload[offset + 1] = (byte) (limb >>> 16);
+            payload[offset + 2] = (byte) (limb >>> 8);
+            payload[offset + 3] = (byte) limb;
+        }
+
+        int leadingZeros = 0;
+        while (leadingZeros < BASE58_PAYLOAD_LENGTH && payload[leadingZeros] == 0) {
+            leadingZeros++;
+        }
+        // Each leading '1' encodes exactly one leading zero byte of the 25-byte payload
+        if (leadingZeros != leadingOnes) {
+            return null;
+        }
+
+        if (!checksumMatches(scratch)) {
+            return null;
+        }
+        int version = payload[0] & 0xff;
+        if (version == VERSION_P2PKH) {
+            return AddressType.P2PKH;
+        }
+        if (version == VERSION_P2SH) {
+            return AddressType.P2SH;
+        }
+        return null;
+    }
+
+    private static boolean checksumMatches(Scratch scratch) {
+        byte[] payload = scratch.payload;
+        byte[] hash = scratch.hash;
+        MessageDigest sha256 = scratch.sha256;
+        try {
+            sha256.update(payload, 0, BASE58_PAYLOAD_LENGTH - 4);
+            sha256.digest(hash, 0, 32);
+            sha256.update(hash, 0, 32);
+            sha256.digest(hash, 0, 32);
+        } catch (DigestException e) {
+            throw new IllegalStateException("SHA-256 digest failed", e);
+        }
+        for (int i = 0; i < 4; i++) {
+            if (hash[i] != payload[BASE58_PAYLOAD_LENGTH - 4 + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static AddressType classifyBech32(CharSequence address) {
+        int length = address.length();
+        if (length > BECH32_MAX_LENGTH) {
+            return null;
+        }
+
+        boolean hasLower = false;
+        boolean hasUpper = false;
+        int separator = -1;
+        for (int i = 0; i < length; i++) {
+            char c = address.charAt(i);
+            if (c < 33 || c > 126) {
+                return null;
+            }
+            if (c >= 'a' && c <= 'z') {
+                hasLower = true;
+            } else if (c >= 'A' && c <= 'Z') {
+                hasUpper = true;
+            } else if (c == '1') {
+                separator = i;
+            }
+        }
+        if (hasLower && hasUpper) {
+            return null;
+        }
+        // Only the "bc" prefix is accepted, so the separator must sit right after it
+        if (separator != SEGWIT_HRP.length()) {
+            return null;
+        }
+        int dataLength = length - separator - 1;
+        if (dataLength < BECH32_CHECKSUM_LENGTH + 1) {
+            return null;
+        }
+
+        int checksum = 1;
+        for (int i = 0; i < separator; i++) {
+            checksum = polymodStep(checksum) ^ ((address.charAt(i) | 0x20) >> 5);
+        }
+        checksum = polymodStep(checksum);
+        for (int i = 0; i < separator; i++) {
+            checksum = polymodStep(checksum) ^ (address.charAt(i) & 31);
+        }
+
+        int witnessVersion = -1;
+        int accumulator = 0;
+        int bits = 0;
+        int programLength = 0;
+        int programEnd = length - BECH32_CHECKSUM_LENGTH;
+        for (int i = separator + 1; i < length; i++) {
+            char c = address.charAt(i);
+            int value = BECH32_INDEX[c];
+            if (value < 0) {
+                return null;
+            }
+            checksum = polymodStep(checksum) ^ value;
+            if (i >= programEnd) {
+                continue;
+            }
+            if (witnessVersion < 0) {
+                witnessVersion = value;
+                continue;
+            }
+            // Regroup 5-bit values into 8-bit program bytes, counting them without storing
+            accumulator = ((accumulator << 5) | value) & 0xfff;
+            bits += 5;
+            if (bits >= 8) {
+                bits -= 8;
+                programLength++;
+            }
+        }
+        if (bits >= 5 || (accumulator & ((1 << bits) - 1)) != 0) {
+            return null;
+        }
+
+        if (witnessVersion < 0 || witnessVersion > 16 || programLength < 2 || programLength > 40) {
+            return null;
+        }
+        if (witnessVersion == 0) {
+            if (checksum != BECH32_CONST) {
+                return null;
+            }
+            if (programLength == 20) {
+                return AddressType.P2WPKH;
+            }
+            return programLength == 32 ? AddressType.P2WSH : null;
+        }
+        if (checksum != BECH32M_CONST) {
+            return null;
+        }
+        return witnessVersion == 1 && programLength == 32 ? AddressType.P2TR : AddressType.WITNESS_UNKNOWN;
+    }
+
+    private static int polymodStep(int checksum) {
+        int top = checksum >>> 25;
+        return ((checksum & 0x1ffffff) << 5)
+                ^ (-(top & 1) & BECH32_GENERATOR[0])
+                ^ (-((top >>> 1) & 1) & BECH32_GENERATOR[1])
+                ^ (-((top >>> 2) & 1) & BECH32_GENERATOR[2])
+                ^ (-((top >>> 3) & 1) & BECH32_GENERATOR[3])
+                ^ (-((top >>> 4) & 1) & BECH32_GENERATOR[4]);
+    }
+
+    /**
+     * Per-thread buffers reused across validations.
+     */
+    private static class Scratch {
+        private final int[] limbs = new int[LIMB_COUNT];
+        private final byte[] payload = new byte[BASE58_PAYLOAD_LENGTH];
+        private final byte[] hash = new byte[32];
+        private final char[] digits = new char[BECH32_MAX_LENGTH];
+        private final MessageDigest sha256;
+
+        Scratch() {
+            try {
+                sha256 = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 not available", e);
+            }
+        }
+    }
+}
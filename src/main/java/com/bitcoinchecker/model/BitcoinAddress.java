@@ -1,9 +1,10 @@
 package com.bitcoinchecker.model;
 
 public class BitcoinAddress {
+    private static final String REPORT_URL_PREFIX = "https://www.chainabuse.com/address/";
+
     private String address;
     private int abuseCount;
-    private String reportUrl;
 
 
     /**
@@ -11,12 +12,15 @@ public class BitcoinAddress {
      * Stores:
      * - Address string
      * - Number of abuse reports
-     * - URL to detailed report
+     * The URL to the detailed report is derived from the address when asked for.
      */
     public BitcoinAddress(String address) {
         this.address = address;
         this.abuseCount = 0;
-        this.reportUrl = "";
+    }
+
+    public static String reportUrlFor(String address) {
+        return REPORT_URL_PREFIX + address;
     }
 
     // Getters and setters
@@ -33,11 +37,7 @@ public class BitcoinAddress {
     }
 
     public String getReportUrl() {
-        return reportUrl;
-    }
-
-    public void setReportUrl(String reportUrl) {
-        this.reportUrl = reportUrl;
+        return reportUrlFor(address);
     }
 
     @Override
@@ -45,7 +45,7 @@ public class BitcoinAddress {
         return "BitcoinAddress{" +
                 "address='" + address + '\'' +
                 ", abuseCount=" + abuseCount +
-                ", reportUrl='" + reportUrl + '\'' +
+                ", reportUrl='" + getReportUrl() + '\'' +
                 '}';
     }
 }
\ No newline at end of file
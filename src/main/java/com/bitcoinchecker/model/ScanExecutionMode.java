@@ -0,0 +1,27 @@
+package com.bitcoinchecker.model;
+
+/**
+ * Execution strategies for address lookups during a scan.
+ * Every mode runs a fixed number of lookup slots that each pull the next address
+ * once their previous lookup has finished:
+ * - ASYNC: scan.max.in.flight slots on the non-blocking HttpClient pipeline, no thread held per request
+ * - PLATFORM: blocking lookups, one slot per thread of a fixed platform pool
+ *   (min of scan.max.in.flight and the pool size)
+ * - VIRTUAL: blocking lookups, scan.max.in.flight slots each on its own virtual thread
+ */
+public enum ScanExecutionMode {
+    ASYNC,
+    PLATFORM,
+    VIRTUAL;
+
+    public static ScanExecutionMode fromString(String value) {
+        if (value == null || value.isBlank()) {
+            return ASYNC;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown scan execution mode: " + value, e);
+        }
+    }
+}
@@ -8,11 +8,27 @@ import java.util.List;
  * Defines contract for components interested in scan status updates:
  * - Start/completion notifications
  * - Per-address scan results
- * - Error handling
+ * - Error handling: onScanFailed once per run, after every lookup has finished,
+ *   when any lookup (or the input) failed; single failures arrive through onAddressFailed
+ * - Optional per-address dispatch/failure events (used for checkpointing)
+ * - Optional notification of input entries skipped as invalid
+ * - Optional cancellation notification
  */
 public interface ScanObserver {
     void onScanStarted();
     void onAddressScanned(BitcoinAddress address);
     void onScanCompleted(List<BitcoinAddress> results);
     void onScanFailed(Exception e);
+
+    default void onAddressDispatched(BitcoinAddress address) {
+    }
+
+    default void onAddressFailed(BitcoinAddress address, Exception e) {
+    }
+
+    default void onAddressSkipped(String input) {
+    }
+
+    default void onScanCancelled() {
+    }
 }
\ No newline at end of file
@@ -0,0 +1,95 @@
+package com.bitcoinchecker.scheduler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hashed timing wheel for large numbers of coarse-grained timers.
+ * Features:
+ * - O(1) schedule: a task lands in bucket (deadline tick mod wheel size)
+ * - advance() only inspects the buckets of elapsed ticks; tasks more than one rotation
+ *   away stay in their bucket until their tick comes round
+ * - Deadlines are rounded up to the next tick, so tasks never fire early
+ * - Catches up in a single pass over the wheel after long pauses (e.g. system sleep)
+ * Thread-safe: tasks may be scheduled from any thread while the owner advances the wheel.
+ */
+public class HashedTimingWheel<T> {
+    private final long tickMillis;
+    private final long startMillis;
+    private final int mask;
+    private final List<List<Timeout<T>>> buckets;
+    private long nextTick;
+    private int size;
+
+    /**
+     * @param wheelSize number of buckets, rounded up to a power of two
+     */
+    public HashedTimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        int buckets = Integer.highestOneBit(Math.max(wheelSize - 1, 1)) << 1;
+        this.tickMillis = tickMillis;
+        this.startMillis = startMillis;
+        this.mask = buckets - 1;
+        this.buckets = new ArrayList<>(buckets);
+        for (int i = 0; i < buckets; i++) {
+            this.buckets.add(new ArrayList<>());
+        }
+    }
+
+    public synchronized void schedule(T task, long deadlineMillis) {
+        long tick = Math.max(Math.floorDiv(deadlineMillis - startMillis + tickMillis - 1, tickMillis), nextTick);
+        buckets.get((int) (tick & mask)).add(new Timeout<>(task, tick));
+        size++;
+    }
+
+    /**
+     * Moves every task whose deadline is at or before nowMillis into due.
+     */
+    public synchronized void advance(long nowMillis, List<T> due) {
+        long targetTick = Math.floorDiv(nowMillis - startMillis, tickMillis);
+        if (targetTick < nextTick) {
+            return;
+        }
+        if (targetTick - nextTick >= mask) {
+            // More than a full rotation elapsed: one sweep of every bucket covers all of it
+            for (List<Timeout<T>> bucket : buckets) {
+                expire(bucket, targetTick, due);
+            }
+        } else {
+            for (long tick = nextTick; tick <= targetTick; tick++) {
+                expire(buckets.get((int) (tick & mask)), tick, due);
+            }
+        }
+        nextTick = targetTick + 1;
+    }
+
+    private void expire(List<Timeout<T>> bucket, long tick, List<T> due) {
+        for (int i = bucket.size() - 1; i >= 0; i--) {
+            Timeout<T> timeout = bucket.get(i);
+            if (timeout.tick <= tick) {
+                due.add(timeout.task);
+                // Swap-remove: order inside a bucket does not matter
+                bucket.set(i, bucket.get(bucket.size() - 1));
+                bucket.remove(bucket.size() - 1);
+                size--;
+            }
+        }
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public long getTickMillis() {
+        return tickMillis;
+    }
+
+    private static class Timeout<T> {
+        private final T task;
+        private final long tick;
+
+        Timeout(T task, long tick) {
+            this.task = task;
+            this.tick = tick;
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.bitcoinchecker.scheduler;
+
+import com.bitcoinchecker.api.AddressLookup;
+import com.bitcoinchecker.api.LookupPriority;
+import com.bitcoinchecker.api.response.AddressResponse;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Priority-aware admission in front of the API client, as an AddressLookup decorator.
+ * Features:
+ * - One FIFO lane per LookupPriority (interactive, scheduled, bulk)
+ * - Only a few lookups are outstanding below the scheduler, so a new interactive lookup
+ *   never queues behind a long bulk backlog inside the rate limiter
+ * - Weighted fair dequeuing (smooth weighted round robin over the non-empty lanes)
+ * - Starvation protection: a lane that has not been served for the maximum wait goes next,
+ *   so every lane gets at least one lookup per maximum wait whatever the weights
+ * - Lookups whose future was cancelled while queued are dropped without an API call;
+ *   cancelling one already started cancels it below the scheduler
+ * Unqualified calls are treated as BULK.
+ */
+public class PriorityLookupScheduler implements AddressLookup {
+    private final AddressLookup delegate;
+    private final int maxOutstanding;
+    private final long maxWaitNanos;
+    private final Map<LookupPriority, Lane> lanes = new EnumMap<>(LookupPriority.class);
+    private int outstanding;
+
+    public PriorityLookupScheduler(AddressLookup delegate, int maxOutstanding, long maxWaitMillis) {
+        this.delegate = delegate;
+        this.maxOutstanding = maxOutstanding;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+        for (LookupPriority priority : LookupPriority.values()) {
+            lanes.put(priority, new Lane(priority.getWeight()));
+        }
+    }
+
+    @Override
+    public AddressResponse checkAddress(String address) throws IOException, InterruptedException {
+        return checkAddress(address, LookupPriority.BULK);
+    }
+
+    @Override
+    public AddressResponse checkAddress(String address, LookupPriority priority)
+            throws IOException, InterruptedException {
+        CompletableFuture<AddressResponse> future = checkAddressAsync(address, priority);
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(false);
+            throw e;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException("Lookup failed for " + address, cause);
+        }
+    }
+
+    @Override
+    public CompletableFuture<AddressResponse> checkAddressAsync(String address) {
+        return checkAddressAsync(address, LookupPriority.BULK);
+    }
+
+    @Override
+    public CompletableFuture<AddressResponse> checkAddressAsync(String address, LookupPriority priority) {
+        Pending pending = new Pending(address, priority);
+        synchronized (this) {
+            lanes.get(priority).queue.add(pending);
+        }
+        dispatchAvailable();
+        return pending.future;
+    }
+
+    public synchronized int getQueueLength(LookupPriority priority) {
+        return lanes.get(priority).queue.size();
+    }
+
+    public synchronized int getQueueLength() {
+        int length = 0;
+        for (Lane lane : lanes.values()) {
+            length += lane.queue.size();
+        }
+        return length;
+    }
+
+    public synchronized int getOutstanding() {
+        return outstanding;
+    }
+
+    /**
+     * Starts as many queued lookups as there are free slots. Lookups are started outside
+     * the lock, since a delegate may complete synchronously and re-enter.
+     */
+    private void dispatchAvailable() {
+        List<Pending> started = new ArrayList<>();
+        synchronized (this) {
+            Pending next;
+            while (outstanding < maxOutstanding && (next = pollNext()) != null) {
+                outstanding++;
+                started.add(next);
+            }
+        }
+        for (Pending pending : started) {
+            start(pending);
+        }
+    }
+
+    private void start(Pending pending) {
+        CompletableFuture<AddressResponse> lookup;
+        try {
+            lookup = delegate.checkAddressAsync(pending.address, pending.priority);
+        } catch (RuntimeException e) {
+            lookup = CompletableFuture.failedFuture(e);
+        }
+        CompletableFuture<AddressResponse> started = lookup;
+        pending.future.whenComplete((response, error) -> {
+            if (pending.future.isCancelled()) {
+                started.cancel(false);
+            }
+        });
+        lookup.whenComplete((response, error) -> {
+            synchronized (this) {
+                outstanding--;
+            }
+            dispatchAvailable();
+            if (error != null) {
+                pending.future.completeExceptionally(error);
+            } else {
+                pending.future.complete(response);
+            }
+        });
+    }
+
+    /**
+     * Picks the next lookup: from a starving lane if any (the one unserved the longest),
+     * otherwise by smooth weighted round robin among the non-empty lanes. Caller holds the lock.
+     */
+    private Pending pollNext() {
+        long now = System.nanoTime();
+        Lane starving = null;
+        long starvingSince = Long.MAX_VALUE;
+        Lane best = null;
+        int totalWeight = 0;
+        for (Lane lane : lanes.values()) {
+            dropCancelled(lane);
+            Pending head = lane.queue.peek();
+            if (head == null) {
+                lane.current = 0;
+                continue;
+            }
+            // Waiting since the later of its head's arrival and its last turn
+            long waitingSince = Math.max(head.enqueuedNanos, lane.lastServedNanos);
+            if (now - waitingSince > maxWaitNanos && waitingSince < starvingSince) {
+                starving = lane;
+                starvingSince = waitingSince;
+            }
+            lane.current += lane.weight;
+            totalWeight += lane.weight;
+            if (best == null || lane.current > best.current) {
+                best = lane;
+            }
+        }
+        if (best == null) {
+            return null;
+        }
+        Lane chosen = starving != null ? starving : best;
+        chosen.current -= totalWeight;
+        chosen.lastServedNanos = now;
+        return chosen.queue.poll();
+    }
+
+    private static void dropCancelled(Lane lane) {
+        while (!lane.queue.isEmpty() && lane.queue.peek().future.isDone()) {
+            lane.queue.poll();
+        }
+    }
+
+    private static class Lane {
+        private final int weight;
+        private final ArrayDeque<Pending> queue = new ArrayDeque<>();
+        private int current;
+        private long lastServedNanos;
+
+        Lane(int weight) {
+            this.weight = weight;
+        }
+    }
+
+    private static class Pending {
+        private final String address;
+        private final LookupPriority priority;
+        private final long enqueuedNanos = System.nanoTime();
+        private final CompletableFuture<AddressResponse> future = new CompletableFuture<>();
+
+        Pending(String address, LookupPriority priority) {
+            this.address = address;
+            this.priority = priority;
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.bitcoinchecker.scheduler;
+
+import com.bitcoinchecker.api.LookupPriority;
+import com.bitcoinchecker.cache.CachingAddressLookup;
+import com.bitcoinchecker.db.DatabaseManager;
+import com.bitcoinchecker.db.ScanResultWriter;
+import com.bitcoinchecker.model.AddressValidator;
+import com.bitcoinchecker.model.BitcoinAddress;
+import com.bitcoinchecker.observer.ScanObserver;
+import com.bitcoinchecker.util.Logger;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Continuous background rescans of the watchlist (the addresses table).
+ * Features:
+ * - Tracks the last scan time of every watched address (from scan_results and from manual scans)
+ * - Rescans an address only once it is older than the rescan interval
+ * - Due times live in a HashedTimingWheel with random jitter, so rescans are spread out
+ *   instead of arriving as one burst; overdue backlogs are spread over the time the
+ *   configured request rate needs to work through them
+ * - Bounded number of in-flight lookups; the excess is pushed back onto the wheel
+ * - Results bypass the lookup cache and are written incrementally through ScanResultWriter
+ * - Periodic resync with the addresses table picks up added and removed addresses; addresses are
+ *   tracked in normalized form, and rows that are not valid addresses are parked (logged once,
+ *   never looked up) until they are removed from the table
+ * Registered as a ScanObserver so manual scans reset the staleness clock.
+ */
+public class WatchlistMonitor implements ScanObserver {
+    private static final long TICK_MILLIS = 1000;
+    private static final int WHEEL_SIZE = 4096;
+
+    private final DatabaseManager database;
+    private final CachingAddressLookup lookup;
+    private final ScanResultWriter resultWriter;
+    private final Logger logger;
+    private final long intervalMillis;
+    private final long jitterMillis;
+    private final long retryMillis;
+    private final long resyncMillis;
+    private final double requestsPerSecond;
+    private final Semaphore inFlight;
+    private final HashedTimingWheel<String> wheel;
+    private final Map<String, WatchEntry> entries = new ConcurrentHashMap<>();
+    private final Set<String> invalid = new HashSet<>();
+    private final Thread ticker;
+    private volatile boolean running = true;
+    private long nextResync;
+
+    public WatchlistMonitor(DatabaseManager database, CachingAddressLookup lookup, ScanResultWriter resultWriter,
+                            Duration rescanInterval, int jitterPercent, int maxInFlight,
+                            Duration resyncInterval, double requestsPerSecond) {
+        this.database = database;
+        this.lookup = lookup;
+        this.resultWriter = resultWriter;
+        this.logger = Logger.getInstance();
+        this.intervalMillis = rescanInterval.toMillis();
+        this.jitterMillis = Math.max(TICK_MILLIS, intervalMillis * jitterPercent / 100);
+        this.retryMillis = Math.max(TICK_MILLIS, intervalMillis / 10);
+        this.resyncMillis = resyncInterval.toMillis();
+        this.requestsPerSecond = requestsPerSecond;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.wheel = new HashedTimingWheel<>(TICK_MILLIS, WHEEL_SIZE, System.currentTimeMillis());
+        this.ticker = new Thread(this::run, "watchlist-monitor");
+        this.ticker.setDaemon(true);
+    }
+
+    public void start() {
+        ticker.start();
+    }
+
+    /**
+     * Stops scheduling; lookups already in flight still complete and are persisted.
+     */
+    public void close() {
+        running = false;
+        ticker.interrupt();
+        try {
+            ticker.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public int getWatchedCount() {
+        return entries.size();
+    }
+
+    public int getScheduledCount() {
+        return wheel.size();
+    }
+
+    private void run() {
+        List<String> due = new ArrayList<>();
+        while (running) {
+            long now = System.currentTimeMillis();
+            try {
+                if (now >= nextResync) {
+                    resync(now);
+                    nextResync = now + resyncMillis;
+                }
+                wheel.advance(now, due);
+                for (int i = 0; i < due.size(); i++) {
+                    dispatch(due.get(i), now, due.size() - i);
+                }
+            } catch (RuntimeException e) {
+                logger.log("Watchlist monitor error: " + e.getMessage(), true);
+            }
+            due.clear();
+            try {
+                Thread.sleep(TICK_MILLIS - System.currentTimeMillis() % TICK_MILLIS);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Adds new watchlist addresses to the wheel and forgets removed ones
+     * (their wheel entries are dropped when they come due).
+     */
+    private void resync(long now) {
+        Set<String> current = new HashSet<>();
+        Set<String> currentInvalid = new HashSet<>();
+        List<WatchEntry> added = new ArrayList<>();
+        database.forEachWatchlistEntry((stored, abuseCount, scannedAt) -> {
+            // Rows from before addresses were validated; the API would reject them on every retry
+            String address = AddressValidator.normalize(stored);
+            if (address == null) {
+                currentInvalid.add(stored);
+                if (!invalid.contains(stored)) {
+                    logger.log("Watchlist: not watching invalid address: " + stored, true);
+                }
+                return;
+            }
+            current.add(address);
+            if (!entries.containsKey(address)) {
+                WatchEntry entry = new WatchEntry(address, abuseCount, scannedAt);
+                entries.put(address, entry);
+                added.add(entry);
+            }
+        });
+        entries.keySet().retainAll(current);
+        invalid.clear();
+        invalid.addAll(currentInvalid);
+
+        int overdue = 0;
+        for (WatchEntry entry : added) {
+            if (entry.lastScanned + intervalMillis <= now) {
+                overdue++;
+            }
+        }
+        long backlogMillis = backlogMillis(overdue);
+        for (WatchEntry entry : added) {
+            long dueAt = entry.lastScanned + intervalMillis;
+            if (dueAt <= now) {
+                wheel.schedule(entry.address, now + jitter(backlogMillis));
+            } else {
+                wheel.schedule(entry.address, dueAt + jitter(jitterMillis));
+            }
+        }
+        if (!added.isEmpty()) {
+            logger.log(String.format("Watchlist monitor tracking %d addresses (%d new, %d due now)",
+                    entries.size(), added.size(), overdue), false);
+        }
+    }
+
+    private void dispatch(String address, long now, int backlog) {
+        WatchEntry entry = entries.get(address);
+        if (entry == null) {
+            return;
+        }
+        long dueAt = entry.lastScanned + intervalMillis;
+        if (dueAt > now) {
+            // Rescanned in the meantime (e.g. by a manual scan)
+            wheel.schedule(address, dueAt + jitter(jitterMillis));
+            return;
+        }
+        if (!inFlight.tryAcquire()) {
+            wheel.schedule(address, now + TICK_MILLIS + jitter(backlogMillis(backlog)));
+            return;
+        }
+
+        lookup.invalidate(address);
+        lookup.checkAddressAsync(address, LookupPriority.SCHEDULED).whenComplete((response, error) -> {
+            inFlight.release();
+            long completedAt = System.currentTimeMillis();
+            if (error != null) {
+                logger.log("Watchlist rescan failed for " + address + ": " + error.getMessage(), true);
+                wheel.schedule(address, completedAt + retryMillis + jitter(jitterMillis));
+                return;
+            }
+            int previous = entry.abuseCount;
+            BitcoinAddress result = new BitcoinAddress(address);
+            result.setAbuseCount(response.getTotalReports());
+            entry.record(result.getAbuseCount(), completedAt);
+            resultWriter.submit(result);
+            if (result.getAbuseCount() != previous) {
+                logger.log(String.format("Watchlist: %s now has %d abuse reports (was %d)",
+                        address, result.getAbuseCount(), previous), result.getAbuseCount() > previous);
+            }
+            wheel.schedule(address, completedAt + intervalMillis + jitter(jitterMillis));
+        });
+    }
+
+    private long backlogMillis(int addresses) {
+        return Math.max(jitterMillis, (long) (addresses * 1000 / Math.max(requestsPerSecond, 0.001)));
+    }
+
+    private static long jitter(long spanMillis) {
+        return ThreadLocalRandom.current().nextLong(Math.max(spanMillis, 1));
+    }
+
+    @Override
+    public void onScanStarted() {
+    }
+
+    @Override
+    public void onAddressScanned(BitcoinAddress address) {
+        WatchEntry entry = entries.get(address.getAddress());
+        if (entry != null) {
+            entry.record(address.getAbuseCount(), System.currentTimeMillis());
+        }
+    }
+
+    @Override
+    public void onScanCompleted(List<BitcoinAddress> results) {
+    }
+
+    @Override
+    public void onScanFailed(Exception e) {
+    }
+
+    private static class WatchEntry {
+        private final String address;
+        private volatile int abuseCount;
+        private volatile long lastScanned;
+
+        WatchEntry(String address, int abuseCount, long lastScanned) {
+            this.address = address;
+            this.abuseCount = abuseCount;
+            this.lastScanned = lastScanned;
+        }
+
+        void record(int abuseCount, long scannedAt) {
+            this.abuseCount = abuseCount;
+            this.lastScanned = scannedAt;
+        }
+    }
+}
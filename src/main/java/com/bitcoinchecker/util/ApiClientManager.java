@@ -1,16 +1,27 @@
 package com.bitcoinchecker.util;
 
 import com.bitcoinchecker.api.ChainAbuseClient;
+import com.bitcoinchecker.cache.CachingAddressLookup;
+import com.bitcoinchecker.cache.SingleFlightLookup;
+import com.bitcoinchecker.metrics.ScanMetrics;
+import com.bitcoinchecker.scheduler.PriorityLookupScheduler;
 
 
 /**
  * Singleton manager for ChainAbuse API client.
- * Provides centralized access to API client instance.
+ * Provides centralized access to API client instance
+ * and the lookup chain built on top of it (cache -> single-flight -> priority scheduler -> client).
  * Uses static initialization holder pattern for thread-safe singleton.
  */
 public class ApiClientManager {
     private ApiClientManager() {
-        client = new ChainAbuseClient(Config.getInstance().getApiKey());
+        Config config = Config.getInstance();
+        client = new ChainAbuseClient(config.getApiKey());
+        scheduler = new PriorityLookupScheduler(client, config.getSchedulerMaxOutstanding(),
+                config.getSchedulerMaxWaitMillis());
+        lookup = new CachingAddressLookup(new SingleFlightLookup(scheduler), config.getCacheMemorySize(),
+                config.getCacheTtl(), config.getCacheNegativeTtl());
+        ScanMetrics.getInstance().setLookupQueueDepth(scheduler::getQueueLength);
     }
 
     private static class InstanceHolder {
@@ -18,6 +29,8 @@ public class ApiClientManager {
     }
 
     private final ChainAbuseClient client;
+    private final PriorityLookupScheduler scheduler;
+    private final CachingAddressLookup lookup;
 
     public static ApiClientManager getInstance() {
         return InstanceHolder.INSTANCE;
@@ -26,4 +39,12 @@ public class ApiClientManager {
     public ChainAbuseClient getClient() {
         return client;
     }
+
+    public PriorityLookupScheduler getScheduler() {
+        return scheduler;
+    }
+
+    public CachingAddressLookup getLookup() {
+        return lookup;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,158 @@
+package com.bitcoinchecker.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Buffered UTF-8 text output over a FileChannel, optionally gzip compressed.
+ * Features:
+ * - Large direct buffer, written to the channel only when full
+ * - Strings and ints encoded straight into the buffer, no intermediate Strings or byte arrays
+ * - Gzip through a raw Deflater working on direct buffers, with the gzip header and
+ *   CRC32 trailer written by hand (GZIPOutputStream only works on streams)
+ * Not thread-safe; used by one exporter at a time.
+ */
+class ChannelOutput implements Closeable {
+    private static final int BUFFER_SIZE = 1 << 20;
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final byte[] digits = new byte[11];
+    private final Deflater deflater;
+    private final ByteBuffer compressed;
+    private final CRC32 crc;
+    private long uncompressedBytes;
+
+    ChannelOutput(Path file, boolean gzip) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        if (gzip) {
+            this.deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+            this.compressed = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            this.crc = new CRC32();
+            writeFully(ByteBuffer.wrap(GZIP_HEADER));
+        } else {
+            this.deflater = null;
+            this.compressed = null;
+            this.crc = null;
+        }
+    }
+
+    void writeByte(int b) throws IOException {
+        if (!buffer.hasRemaining()) {
+            drain();
+        }
+        buffer.put((byte) b);
+    }
+
+    void writeString(String s) throws IOException {
+        writeString(s, 0, s.length());
+    }
+
+    /**
+     * Writes chars [from, to) of the string as UTF-8.
+     */
+    void writeString(String s, int from, int to) throws IOException {
+        for (int i = from; i < to; i++) {
+            if (buffer.remaining() < 4) {
+                drain();
+            }
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                buffer.put((byte) c);
+            } else if (c < 0x800) {
+                buffer.put((byte) (0xc0 | (c >> 6)));
+                buffer.put((byte) (0x80 | (c & 0x3f)));
+            } else if (Character.isHighSurrogate(c) && i + 1 < to && Character.isLowSurrogate(s.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, s.charAt(++i));
+                buffer.put((byte) (0xf0 | (codePoint >> 18)));
+                buffer.put((byte) (0x80 | ((codePoint >> 12) & 0x3f)));
+                buffer.put((byte) (0x80 | ((codePoint >> 6) & 0x3f)));
+                buffer.put((byte) (0x80 | (codePoint & 0x3f)));
+            } else if (Character.isSurrogate(c)) {
+                buffer.put((byte) '?');
+            } else {
+                buffer.put((byte) (0xe0 | (c >> 12)));
+                buffer.put((byte) (0x80 | ((c >> 6) & 0x3f)));
+                buffer.put((byte) (0x80 | (c & 0x3f)));
+            }
+        }
+    }
+
+    void writeInt(int value) throws IOException {
+        if (buffer.remaining() < digits.length) {
+            drain();
+        }
+        long v = value;
+        if (v < 0) {
+            buffer.put((byte) '-');
+            v = -v;
+        }
+        int length = 0;
+        do {
+            digits[length++] = (byte) ('0' + v % 10);
+            v /= 10;
+        } while (v != 0);
+        while (length > 0) {
+            buffer.put(digits[--length]);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            drain();
+            if (deflater != null) {
+                deflater.finish();
+                while (!deflater.finished()) {
+                    deflate();
+                }
+                ByteBuffer trailer = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+                trailer.putInt((int) crc.getValue()).putInt((int) uncompressedBytes).flip();
+                writeFully(trailer);
+            }
+        } finally {
+            if (deflater != null) {
+                deflater.end();
+            }
+            channel.close();
+        }
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        if (deflater == null) {
+            writeFully(buffer);
+        } else {
+            uncompressedBytes += buffer.remaining();
+            crc.update(buffer.duplicate());
+            // The deflater keeps a reference to its input, so hand it a view that clear() cannot refill
+            deflater.setInput(buffer.duplicate());
+            while (!deflater.needsInput()) {
+                deflate();
+            }
+        }
+        buffer.clear();
+    }
+
+    private void deflate() throws IOException {
+        compressed.clear();
+        deflater.deflate(compressed);
+        compressed.flip();
+        writeFully(compressed);
+    }
+
+    private void writeFully(ByteBuffer source) throws IOException {
+        while (source.hasRemaining()) {
+            channel.write(source);
+        }
+    }
+}
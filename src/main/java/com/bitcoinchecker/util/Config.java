@@ -2,15 +2,21 @@ package com.bitcoinchecker.util;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.time.Duration;
 import java.util.Properties;
 
 
 /**
  * Configuration singleton for managing application properties.
- * Loads properties from config.properties file.
+ * Loads properties from config.properties file; a system property (-Dkey=value)
+ * overrides any key defined there, e.g. to point the API client at a local stub.
  * Provides access to:
  * - API configuration
  * - Connection timeouts
+ * - Rate limiting and retry settings
+ * - Lookup cache sizing and TTLs
+ * - Scan pipeline limits
+ * - Write-behind persistence batching
  * - Other app settings
  * Uses static initialization holder pattern for thread-safe singleton.
  */
@@ -36,6 +42,12 @@ public class Config {
                 throw new RuntimeException("Unable to find config.properties");
             }
             properties.load(input);
+            for (String key : properties.stringPropertyNames()) {
+                String override = System.getProperty(key);
+                if (override != null) {
+                    properties.setProperty(key, override);
+                }
+            }
         } catch (IOException e) {
             throw new RuntimeException("Error loading config.properties", e);
         }
@@ -45,4 +57,118 @@ public class Config {
         return properties.getProperty("api.key");
     }
 
+    public String getApiBaseUrl() {
+        return properties.getProperty("api.base.url", "https://api.chainabuse.com/v0").trim();
+    }
+
+    public double getApiRateLimit() {
+        return getDouble("api.rate.limit", 5.0);
+    }
+
+    public int getApiRateBurst() {
+        return getInt("api.rate.burst", 5);
+    }
+
+    public int getApiMaxConcurrency() {
+        return getInt("api.max.concurrency", 5);
+    }
+
+    public int getApiMaxRetries() {
+        return getInt("api.max.retries", 5);
+    }
+
+    public boolean isRawResponseLoggingEnabled() {
+        return Boolean.parseBoolean(properties.getProperty("api.log.raw.response", "false").trim());
+    }
+
+    public int getScanMaxInFlight() {
+        return getInt("scan.max.in.flight", 50);
+    }
+
+    public String getScanExecutionMode() {
+        return properties.getProperty("scan.execution.mode", "async");
+    }
+
+    public int getScanThreads() {
+        return getInt("scan.threads", 5);
+    }
+
+    public int getDbWriteQueueCapacity() {
+        return getInt("db.write.queue.capacity", 10_000);
+    }
+
+    public int getDbWriteBatchSize() {
+        return getInt("db.write.batch.size", 500);
+    }
+
+    public int getDbWriteFlushMillis() {
+        return getInt("db.write.flush.millis", 250);
+    }
+
+    public int getCacheMemorySize() {
+        return getInt("cache.memory.size", 100_000);
+    }
+
+    public Duration getCacheTtl() {
+        return Duration.ofMinutes(getInt("cache.ttl.minutes", 24 * 60));
+    }
+
+    public Duration getCacheNegativeTtl() {
+        return Duration.ofMinutes(getInt("cache.negative.ttl.minutes", 6 * 60));
+    }
+
+    public int getLogBufferCapacity() {
+        return getInt("log.buffer.capacity", 8192);
+    }
+
+    public int getLogUiMaxLines() {
+        return getInt("log.ui.max.lines", 5000);
+    }
+
+    public long getLogRotateMaxBytes() {
+        return getInt("log.rotate.max.mb", 10) * 1024L * 1024L;
+    }
+
+    public int getLogRotateMaxArchives() {
+        return getInt("log.rotate.max.archives", 10);
+    }
+
+    public int getSchedulerMaxOutstanding() {
+        return getInt("scheduler.max.outstanding", 5);
+    }
+
+    public long getSchedulerMaxWaitMillis() {
+        return getInt("scheduler.max.wait.millis", 10_000);
+    }
+
+    public boolean isMonitorEnabled() {
+        return Boolean.parseBoolean(properties.getProperty("monitor.enabled", "false").trim());
+    }
+
+    public Duration getMonitorRescanInterval() {
+        return Duration.ofMinutes(getInt("monitor.rescan.interval.minutes", 24 * 60));
+    }
+
+    public int getMonitorJitterPercent() {
+        return getInt("monitor.jitter.percent", 10);
+    }
+
+    public int getMonitorMaxInFlight() {
+        return getInt("monitor.max.in.flight", 10);
+    }
+
+    public Duration getMonitorResyncInterval() {
+        return Duration.ofMinutes(getInt("monitor.resync.minutes", 5));
+    }
+
+    private int getInt(String key, int defaultValue) {
+        String value = properties.getProperty(key);
+        return value == null || value.isBlank() ? defaultValue : Integer.parseInt(value.trim());
+    }
+
+    private double getDouble(String key, double defaultValue) {
+        String value = properties.getProperty(key);
+        return value == null || value.isBlank() ? defaultValue : Double.parseDouble(value.trim());
+    }
+
 }
\ No newline at end of file
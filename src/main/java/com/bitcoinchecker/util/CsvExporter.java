@@ -0,0 +1,66 @@
+package com.bitcoinchecker.util;
+
+import java.io.IOException;
+
+/**
+ * RFC 4180 CSV export (address,abuse_count,report_url), optionally gzip compressed.
+ * Fields are quoted only when they contain a comma, quote or line break.
+ */
+public class CsvExporter extends StreamingTextExporter {
+
+    public CsvExporter(boolean gzip) {
+        super(gzip);
+    }
+
+    @Override
+    protected String getBaseExtension() {
+        return "csv";
+    }
+
+    @Override
+    protected void writeHeader(ChannelOutput out) throws IOException {
+        out.writeString("address,abuse_count,report_url\r\n");
+    }
+
+    @Override
+    protected void writeRow(ChannelOutput out, String address, int abuseCount, String reportUrl) throws IOException {
+        writeField(out, address);
+        out.writeByte(',');
+        out.writeInt(abuseCount);
+        out.writeByte(',');
+        writeField(out, reportUrl);
+        out.writeByte('\r');
+        out.writeByte('\n');
+    }
+
+    private static void writeField(ChannelOutput out, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (!needsQuoting(value)) {
+            out.writeString(value);
+            return;
+        }
+        out.writeByte('"');
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) == '"') {
+                out.writeString(value, start, i + 1);
+                out.writeByte('"');
+                start = i + 1;
+            }
+        }
+        out.writeString(value, start, value.length());
+        out.writeByte('"');
+    }
+
+    private static boolean needsQuoting(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -1,64 +1,122 @@
 package com.bitcoinchecker.util;
 
+import com.bitcoinchecker.db.DatabaseManager;
 import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
-import javax.swing.*;
-import java.io.File;
-import java.io.FileOutputStream;
-import com.bitcoinchecker.model.BitcoinAddress;
-import java.util.List;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 
-public class ExcelExporter {
-    public static void exportToExcel(List<BitcoinAddress> addresses, JFrame parentFrame) {
-        JFileChooser fileChooser = new JFileChooser();
-        fileChooser.setDialogTitle("Save Excel File");
-        fileChooser.setSelectedFile(new File("scan_results.xlsx"));
+/**
+ * Streaming Excel export of persisted scan results.
+ * Features:
+ * - SXSSFWorkbook keeps only a small window of rows in memory, older rows go to a compressed temp file
+ * - Rows are read straight from a database cursor, never copied into a list
+ * - Column widths estimated from the text length of the written values (no autoSizeColumn pass)
+ * - Rows beyond the sheet limit continue on additional sheets
+ * - Progress callback that can cancel the export
+ * - Written to a temporary file and moved into place, so a cancelled or failed export leaves no partial file
+ * Does no Swing work, so it is meant to run off the EDT (see ResultExportWorker).
+ */
+public class ExcelExporter implements ResultExporter {
+    private static final int ROW_WINDOW = 100;
+    private static final int MAX_ROWS_PER_SHEET = 1_048_576;
+    private static final int PROGRESS_INTERVAL = 1000;
+    private static final int MAX_COLUMN_CHARS = 255;
+    private static final String[] HEADERS = {"Address", "Number of Abuses", "Report URL"};
 
-        if (fileChooser.showSaveDialog(parentFrame) == JFileChooser.APPROVE_OPTION) {
-            File file = fileChooser.getSelectedFile();
-            if (!file.getName().endsWith(".xlsx")) {
-                file = new File(file.getAbsolutePath() + ".xlsx");
+    @Override
+    public String getFileExtension() {
+        return "xlsx";
+    }
+
+    @Override
+    public int export(DatabaseManager database, Path file, ProgressListener listener) throws IOException {
+        Path partial = file.resolveSibling(file.getFileName() + ".part");
+        SXSSFWorkbook workbook = new SXSSFWorkbook(ROW_WINDOW);
+        workbook.setCompressTempFiles(true);
+        try {
+            SheetWriter writer = new SheetWriter(workbook, listener);
+            database.forEachScanResult(writer::writeRow);
+            if (writer.cancelled || !listener.onProgress(writer.rowsWritten)) {
+                return -1;
             }
+            writer.finishSheet();
+            try (OutputStream out = Files.newOutputStream(partial)) {
+                workbook.write(out);
+            }
+            Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING);
+            return writer.rowsWritten;
+        } finally {
+            workbook.dispose();
+            workbook.close();
+            Files.deleteIfExists(partial);
+        }
+    }
 
-            try (Workbook workbook = new XSSFWorkbook()) {
-                Sheet sheet = workbook.createSheet("Scan Results");
+    /**
+     * Appends rows to the current sheet, starting a new one when it is full.
+     */
+    private static class SheetWriter {
+        private final Workbook workbook;
+        private final ProgressListener listener;
+        private final int[] columnChars = new int[HEADERS.length];
+        private Sheet sheet;
+        private int sheetCount;
+        private int rowIndex;
+        private int rowsWritten;
+        private boolean cancelled;
 
-                // Create header row
-                Row headerRow = sheet.createRow(0);
-                headerRow.createCell(0).setCellValue("Address");
-                headerRow.createCell(1).setCellValue("Number of Abuses");
-                headerRow.createCell(2).setCellValue("Report URL");
+        SheetWriter(Workbook workbook, ProgressListener listener) {
+            this.workbook = workbook;
+            this.listener = listener;
+            startSheet();
+        }
 
-                // Create data rows
-                for (int i = 0; i < addresses.size(); i++) {
-                    BitcoinAddress address = addresses.get(i);
-                    Row row = sheet.createRow(i + 1);
-                    row.createCell(0).setCellValue(address.getAddress());
-                    row.createCell(1).setCellValue(address.getAbuseCount());
-                    row.createCell(2).setCellValue(address.getReportUrl());
-                }
+        boolean writeRow(String address, int abuseCount, String reportUrl) {
+            if (rowIndex == MAX_ROWS_PER_SHEET) {
+                finishSheet();
+                startSheet();
+            }
+            Row row = sheet.createRow(rowIndex++);
+            row.createCell(0).setCellValue(address);
+            row.createCell(1).setCellValue(abuseCount);
+            row.createCell(2).setCellValue(reportUrl);
+            track(0, address);
+            track(2, reportUrl);
 
-                // Auto-size columns
-                for (int i = 0; i < 3; i++) {
-                    sheet.autoSizeColumn(i);
-                }
+            rowsWritten++;
+            if (rowsWritten % PROGRESS_INTERVAL == 0 && !listener.onProgress(rowsWritten)) {
+                cancelled = true;
+                return false;
+            }
+            return true;
+        }
 
-                // Save workbook
-                try (FileOutputStream outputStream = new FileOutputStream(file)) {
-                    workbook.write(outputStream);
-                }
+        private void startSheet() {
+            sheetCount++;
+            sheet = workbook.createSheet(sheetCount == 1 ? "Scan Results" : "Scan Results " + sheetCount);
+            Row headerRow = sheet.createRow(0);
+            for (int i = 0; i < HEADERS.length; i++) {
+                headerRow.createCell(i).setCellValue(HEADERS[i]);
+                columnChars[i] = HEADERS[i].length();
+            }
+            rowIndex = 1;
+        }
 
-                JOptionPane.showMessageDialog(parentFrame,
-                        "Results exported successfully to:\n" + file.getAbsolutePath(),
-                        "Export Complete",
-                        JOptionPane.INFORMATION_MESSAGE);
+        private void track(int column, String value) {
+            if (value != null && value.length() > columnChars[column]) {
+                columnChars[column] = value.length();
+            }
+        }
 
-            } catch (Exception e) {
-                JOptionPane.showMessageDialog(parentFrame,
-                        "Error exporting file: " + e.getMessage(),
-                        "Export Error",
-                        JOptionPane.ERROR_MESSAGE);
+        void finishSheet() {
+            for (int i = 0; i < HEADERS.length; i++) {
+                // Column width is measured in 1/256 of a character
+                sheet.setColumnWidth(i, Math.min(columnChars[i] + 2, MAX_COLUMN_CHARS) * 256);
             }
         }
     }
-}
\ No newline at end of file
+}
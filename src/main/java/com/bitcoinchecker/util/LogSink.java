@@ -0,0 +1,9 @@
+package com.bitcoinchecker.util;
+
+/**
+ * Destination for log lines besides the log file (e.g. the UI log pane).
+ * Keeps Logger free of Swing so it can run headless.
+ */
+public interface LogSink {
+    void append(String line, boolean isError);
+}
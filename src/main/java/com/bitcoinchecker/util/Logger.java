@@ -1,100 +1,301 @@
 package com.bitcoinchecker.util;
 
 
-import javax.swing.*;
-import javax.swing.text.*;
-import java.awt.Color;
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
 
 
 /**
  * Singleton logger implementation for application-wide logging.
  * Features:
- * - Writes logs to file and displays in UI
- * - Color coded logging (green/red)
- * - Timestamp formatting
- * - File persistence with reload on startup
- * - Thread-safe logging via SwingUtilities.invokeLater
+ * - Asynchronous: callers only publish an event into a bounded ring buffer
+ * - Single consumer thread formats, writes and flushes the log file once per batch
+ * - Forwards lines to an optional LogSink (the UI log pane)
+ * - Error flag per line for color coding
+ * - Thread-safe timestamp formatting (timestamp taken when the event is published)
+ * - File persistence; only the last N lines are replayed into the sink when it is attached,
+ *   found by scanning the file backwards, so startup cost does not grow with the file
+ * - Rotation by size and by day into gzip archives, keeping a bounded number of them
+ * - No Swing dependency, so it works in the headless scanner
+ * Callers block only when the buffer is full, so no line is ever dropped.
  * Uses static initialization holder pattern for thread-safe singleton.
  */
 public class Logger {
     private static final String LOG_FILE = "logs.txt";
-    private JTextPane logArea;
-    private final SimpleAttributeSet greenStyle;
-    private final SimpleAttributeSet redStyle;
-    private final BufferedWriter writer;
-    private final SimpleDateFormat dateFormat;
-    private static JTextPane uiLogArea;
+    private static final String ARCHIVE_PREFIX = "logs-";
+    private static final String ARCHIVE_SUFFIX = ".txt.gz";
+    private static final int TAIL_BLOCK_SIZE = 1 << 16;
+    private static final DateTimeFormatter DATE_FORMAT =
+            DateTimeFormatter.ofPattern("MM/dd/yy HH:mm:ss").withZone(ZoneId.systemDefault());
+    private static final int MAX_BATCH = 1024;
 
-    private Logger(JTextPane logArea) throws IOException {
-        this.logArea = logArea;
-        this.writer = new BufferedWriter(new FileWriter(LOG_FILE, true));
-        this.dateFormat = new SimpleDateFormat("MM/dd/yy HH:mm:ss");
+    private final Path logFile = Paths.get(LOG_FILE);
+    private final long maxFileBytes;
+    private final int maxArchives;
+    private final int tailLines;
+    private final BlockingQueue<LogEvent> buffer;
+    private BufferedWriter writer;
+    private CountingOutputStream fileOut;
+    private LocalDate fileDay;
+    private final Thread consumer;
+    private volatile boolean running = true;
+    private volatile LogSink sink;
 
-        greenStyle = new SimpleAttributeSet();
-        StyleConstants.setForeground(greenStyle, new Color(0, 128, 0));
-
-        redStyle = new SimpleAttributeSet();
-        StyleConstants.setForeground(redStyle, Color.RED);
+    private Logger() throws IOException {
+        Config config = Config.getInstance();
+        this.maxFileBytes = config.getLogRotateMaxBytes();
+        this.maxArchives = config.getLogRotateMaxArchives();
+        this.tailLines = config.getLogUiMaxLines();
+        this.buffer = new ArrayBlockingQueue<>(config.getLogBufferCapacity());
+        openWriter();
+        this.consumer = new Thread(this::runConsumer, "log-writer");
+        this.consumer.setDaemon(true);
+        this.consumer.start();
+    }
 
-        loadExistingLogs();
+    private void openWriter() throws IOException {
+        this.fileOut = new CountingOutputStream(new FileOutputStream(LOG_FILE, true), Files.size(logFile));
+        this.writer = new BufferedWriter(new OutputStreamWriter(fileOut, StandardCharsets.UTF_8), 1 << 16);
+        this.fileDay = fileOut.getCount() == 0 ? LocalDate.now()
+                : LocalDate.ofInstant(Files.getLastModifiedTime(logFile).toInstant(), ZoneId.systemDefault());
     }
 
-    private void loadExistingLogs() {
+    private void loadExistingLogs(LogSink sink) {
         try {
-            List<String> lines = Files.readAllLines(Paths.get(LOG_FILE));
-            for(String line : lines) {
-                if(line.contains("Error") || line.contains("failed")) {
-                    appendToLogArea(line + "\n", redStyle);
-                } else {
-                    appendToLogArea(line + "\n", greenStyle);
-                }
+            for (String line : readTail(logFile, tailLines)) {
+                sink.append(line, line.contains("Error") || line.contains("failed"));
             }
         } catch (IOException e) {
             System.err.println("Failed to load logs: " + e.getMessage());
         }
     }
 
+    /**
+     * Returns the last maxLines lines of the file, reading fixed-size blocks backwards
+     * from the end until enough line breaks have been seen.
+     */
+    static List<String> readTail(Path file, int maxLines) throws IOException {
+        if (maxLines <= 0 || !Files.exists(file)) {
+            return List.of();
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = size;
+            long start = 0;
+            int newlines = 0;
+            ByteBuffer block = ByteBuffer.allocate(TAIL_BLOCK_SIZE);
+            scan:
+            while (position > 0) {
+                int length = (int) Math.min(TAIL_BLOCK_SIZE, position);
+                position -= length;
+                block.clear().limit(length);
+                while (block.hasRemaining()) {
+                    if (channel.read(block, position + block.position()) < 0) {
+                        break;
+                    }
+                }
+                for (int i = length - 1; i >= 0; i--) {
+                    // The newline ending the last line does not start a new one
+                    if (block.get(i) == '\n' && position + i != size - 1 && ++newlines == maxLines) {
+                        start = position + i + 1;
+                        break scan;
+                    }
+                }
+            }
+
+            ByteBuffer tail = ByteBuffer.allocate((int) (size - start));
+            while (tail.hasRemaining()) {
+                if (channel.read(tail, start + tail.position()) < 0) {
+                    break;
+                }
+            }
+            String text = new String(tail.array(), 0, tail.position(), StandardCharsets.UTF_8);
+            List<String> lines = new ArrayList<>(maxLines);
+            for (String line : text.split("\r?\n")) {
+                if (!line.isEmpty()) {
+                    lines.add(line);
+                }
+            }
+            return lines;
+        }
+    }
+
     public void log(String message, boolean isError) {
-        String timestamp = dateFormat.format(new Date());
-        String fullMessage = timestamp + " " + message;
+        LogEvent event = new LogEvent(System.currentTimeMillis(), message, isError);
+        if (!running) {
+            write(List.of(event));
+            return;
+        }
+        try {
+            buffer.put(event);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            write(List.of(event));
+        }
+    }
 
+    /**
+     * Attaches the sink and replays the existing log file into it.
+     */
+    public void setSink(LogSink sink) {
+        loadExistingLogs(sink);
+        this.sink = sink;
+    }
+
+    /**
+     * Stops the consumer after it has written every published event.
+     */
+    public void close() {
+        running = false;
+        consumer.interrupt();
         try {
-            writer.write(fullMessage + "\n");
-            writer.flush();
+            consumer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
 
-            SwingUtilities.invokeLater(() -> {
-                appendToLogArea(fullMessage + "\n", isError ? redStyle : greenStyle);
-            });
+    private void runConsumer() {
+        List<LogEvent> batch = new ArrayList<>(MAX_BATCH);
+        while (running || !buffer.isEmpty()) {
+            try {
+                batch.add(buffer.take());
+                buffer.drainTo(batch, MAX_BATCH - 1);
+            } catch (InterruptedException e) {
+                buffer.drainTo(batch);
+            }
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    private synchronized void write(List<LogEvent> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<String> lines = new ArrayList<>(batch.size());
+        try {
+            rotateIfNeeded();
+            for (LogEvent event : batch) {
+                String line = DATE_FORMAT.format(Instant.ofEpochMilli(event.timestamp)) + " " + event.message;
+                lines.add(line);
+                writer.write(line);
+                writer.newLine();
+            }
+            writer.flush();
         } catch (IOException e) {
             System.err.println("Failed to write log: " + e.getMessage());
         }
+
+        LogSink currentSink = sink;
+        if (currentSink != null) {
+            for (int i = 0; i < lines.size(); i++) {
+                currentSink.append(lines.get(i), batch.get(i).isError);
+            }
+        }
     }
 
-    private void appendToLogArea(String text, SimpleAttributeSet style) {
-        StyledDocument doc = (StyledDocument) logArea.getDocument();
-        try {
-            doc.insertString(doc.getLength(), text, style);
-        } catch (BadLocationException e) {
-            System.err.println("Error appending to log area: " + e.getMessage());
+    private void rotateIfNeeded() throws IOException {
+        // The writer is flushed after every batch, so the count is the file size in bytes
+        long fileBytes = fileOut.getCount();
+        if (fileBytes == 0 || (fileBytes < maxFileBytes && fileDay.equals(LocalDate.now()))) {
+            return;
+        }
+        writer.close();
+        Path archive = nextArchivePath(fileDay);
+        try (InputStream in = Files.newInputStream(logFile);
+             OutputStream out = new GZIPOutputStream(Files.newOutputStream(archive), 1 << 16)) {
+            in.transferTo(out);
         }
+        Files.newOutputStream(logFile, StandardOpenOption.TRUNCATE_EXISTING).close();
+        deleteOldArchives();
+        openWriter();
     }
 
-    public static void setLogArea(JTextPane logArea) {
-        uiLogArea = logArea;
-        InstanceHolder.INSTANCE.logArea = logArea;
-        InstanceHolder.INSTANCE.loadExistingLogs();
+    private Path nextArchivePath(LocalDate day) {
+        Path directory = logFile.toAbsolutePath().getParent();
+        for (int index = 1; ; index++) {
+            Path candidate = directory.resolve(ARCHIVE_PREFIX + day + "." + index + ARCHIVE_SUFFIX);
+            if (!Files.exists(candidate)) {
+                return candidate;
+            }
+        }
+    }
+
+    private void deleteOldArchives() {
+        File[] archives = logFile.toAbsolutePath().getParent().toFile().listFiles(
+                (dir, name) -> name.startsWith(ARCHIVE_PREFIX) && name.endsWith(ARCHIVE_SUFFIX));
+        if (archives == null || archives.length <= maxArchives) {
+            return;
+        }
+        Arrays.sort(archives, Comparator.comparingLong(File::lastModified));
+        for (int i = 0; i < archives.length - maxArchives; i++) {
+            if (!archives[i].delete()) {
+                System.err.println("Failed to delete old log archive: " + archives[i]);
+            }
+        }
+    }
+
+    private static class LogEvent {
+        private final long timestamp;
+        private final String message;
+        private final boolean isError;
+
+        LogEvent(long timestamp, String message, boolean isError) {
+            this.timestamp = timestamp;
+            this.message = message;
+            this.isError = isError;
+        }
+    }
+
+    /**
+     * Counts the encoded bytes reaching the log file, starting from its size when opened.
+     */
+    private static class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        CountingOutputStream(OutputStream out, long initialCount) {
+            super(out);
+            this.count = initialCount;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+
+        long getCount() {
+            return count;
+        }
     }
 
     private static class InstanceHolder {
         private static final Logger INSTANCE;
         static {
             try {
-                INSTANCE = new Logger(new JTextPane());
+                INSTANCE = new Logger();
             } catch (IOException e) {
                 throw new RuntimeException("Failed to initialize logger", e);
             }
@@ -105,4 +306,4 @@ public class Logger {
         return InstanceHolder.INSTANCE;
     }
 
-}
\ No newline at end of file
+}
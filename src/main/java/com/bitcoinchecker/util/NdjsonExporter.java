@@ -0,0 +1,69 @@
+package com.bitcoinchecker.util;
+
+import java.io.IOException;
+
+/**
+ * Newline-delimited JSON export, one object per result:
+ * {"address":"...","abuse_count":N,"report_url":"..."}
+ * Optionally gzip compressed.
+ */
+public class NdjsonExporter extends StreamingTextExporter {
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    public NdjsonExporter(boolean gzip) {
+        super(gzip);
+    }
+
+    @Override
+    protected String getBaseExtension() {
+        return "ndjson";
+    }
+
+    @Override
+    protected void writeHeader(ChannelOutput out) {
+    }
+
+    @Override
+    protected void writeRow(ChannelOutput out, String address, int abuseCount, String reportUrl) throws IOException {
+        out.writeString("{\"address\":");
+        writeJsonString(out, address);
+        out.writeString(",\"abuse_count\":");
+        out.writeInt(abuseCount);
+        out.writeString(",\"report_url\":");
+        writeJsonString(out, reportUrl);
+        out.writeByte('}');
+        out.writeByte('\n');
+    }
+
+    private static void writeJsonString(ChannelOutput out, String value) throws IOException {
+        if (value == null) {
+            out.writeString("null");
+            return;
+        }
+        out.writeByte('"');
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= 0x20 && c != '"' && c != '\\') {
+                continue;
+            }
+            out.writeString(value, start, i);
+            out.writeByte('\\');
+            switch (c) {
+                case '"' -> out.writeByte('"');
+                case '\\' -> out.writeByte('\\');
+                case '\n' -> out.writeByte('n');
+                case '\r' -> out.writeByte('r');
+                case '\t' -> out.writeByte('t');
+                default -> {
+                    out.writeString("u00");
+                    out.writeByte(HEX[c >> 4]);
+                    out.writeByte(HEX[c & 0xf]);
+                }
+            }
+            start = i + 1;
+        }
+        out.writeString(value, start, value.length());
+        out.writeByte('"');
+    }
+}
@@ -0,0 +1,32 @@
+package com.bitcoinchecker.util;
+
+import com.bitcoinchecker.db.DatabaseManager;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Strategy for exporting persisted scan results to a file.
+ * Implementations stream rows from the database and never leave a partial file behind.
+ */
+public interface ResultExporter {
+
+    /**
+     * Notified every few thousand rows; returning false cancels the export.
+     */
+    @FunctionalInterface
+    interface ProgressListener {
+        boolean onProgress(int rowsWritten);
+    }
+
+    /**
+     * File name extension written by this exporter, without the leading dot (e.g. "csv.gz").
+     */
+    String getFileExtension();
+
+    /**
+     * Writes every scan result to the file and returns the number of rows written,
+     * or -1 when the listener cancelled the export.
+     */
+    int export(DatabaseManager database, Path file, ProgressListener listener) throws IOException;
+}
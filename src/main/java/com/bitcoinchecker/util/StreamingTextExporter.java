@@ -0,0 +1,69 @@
+package com.bitcoinchecker.util;
+
+import com.bitcoinchecker.db.DatabaseManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Base class for line-oriented text exporters (CSV, NDJSON).
+ * Streams rows from a database cursor into a ChannelOutput, reports progress,
+ * and writes to a temporary file that is moved into place only on success.
+ */
+abstract class StreamingTextExporter implements ResultExporter {
+    private static final int PROGRESS_INTERVAL = 10_000;
+
+    private final boolean gzip;
+
+    StreamingTextExporter(boolean gzip) {
+        this.gzip = gzip;
+    }
+
+    protected abstract String getBaseExtension();
+
+    protected abstract void writeHeader(ChannelOutput out) throws IOException;
+
+    protected abstract void writeRow(ChannelOutput out, String address, int abuseCount, String reportUrl)
+            throws IOException;
+
+    @Override
+    public String getFileExtension() {
+        return gzip ? getBaseExtension() + ".gz" : getBaseExtension();
+    }
+
+    @Override
+    public int export(DatabaseManager database, Path file, ProgressListener listener) throws IOException {
+        Path partial = file.resolveSibling(file.getFileName() + ".part");
+        int[] rowsWritten = {0};
+        boolean[] cancelled = {false};
+        try {
+            try (ChannelOutput out = new ChannelOutput(partial, gzip)) {
+                writeHeader(out);
+                database.forEachScanResult((address, abuseCount, reportUrl) -> {
+                    try {
+                        writeRow(out, address, abuseCount, reportUrl);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    if (++rowsWritten[0] % PROGRESS_INTERVAL == 0 && !listener.onProgress(rowsWritten[0])) {
+                        cancelled[0] = true;
+                        return false;
+                    }
+                    return true;
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            if (cancelled[0] || !listener.onProgress(rowsWritten[0])) {
+                return -1;
+            }
+            Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING);
+            return rowsWritten[0];
+        } finally {
+            Files.deleteIfExists(partial);
+        }
+    }
+}
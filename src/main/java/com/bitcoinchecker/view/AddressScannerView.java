@@ -2,13 +2,16 @@ package com.bitcoinchecker.view;
 
 import com.bitcoinchecker.model.*;
 import com.bitcoinchecker.observer.ScanObserver;
+import com.bitcoinchecker.util.Config;
 import javax.swing.*;
-import javax.swing.text.BadLocationException;
-import javax.swing.text.StyledDocument;
 import java.awt.GridLayout;
 import java.awt.*;
 import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import java.util.Arrays;
 import java.util.List;
 
@@ -19,9 +22,13 @@ import java.util.List;
  * - Adding/uploading Bitcoin addresses
  * - Displaying address list and scan results
  * - Log display
- * - Scan controls
+ * - Scan controls, including cancelling a running scan
+ * - Sorting results by clicking a column header and filtering them by
+ *   minimum abuse count and address prefix (done in AddressTableModel)
  * Implements ScanObserver to receive scan status updates.
- * Uses SwingUtilities.invokeLater for thread-safe UI updates.
+ * Scan results are coalesced by a FrameBatcher and applied once per frame
+ * (one table insert event and one log append per batch); other updates use
+ * SwingUtilities.invokeLater for thread-safe UI updates.
  */
 public class AddressScannerView extends JFrame implements ScanObserver {
     private static final Color BG_COLOR = new Color(200, 200, 200);
@@ -33,17 +40,24 @@ public class AddressScannerView extends JFrame implements ScanObserver {
     private static final Font LOG_FONT = new Font("Consolas", Font.PLAIN, 12);
     private static final int LOG_HEIGHT = 200;
     private static final int PADDING = 10;
+    private static final int MAX_RESULTS_PER_FRAME = 5000;
 
     private JTextField addressField;
     private JButton addButton;
     private JButton uploadButton;
     private JButton clearButton;
     private JButton scanButton;
+    private JButton cancelButton;
     private JButton saveButton;
     private JTable resultsTable;
     private JTable addressesTable;
+    private JSpinner minAbuseSpinner;
+    private JTextField prefixFilterField;
     private JTextPane logArea;
+    private TextPaneLogSink logSink;
     private final AddressTableModel tableModel;
+    private final FrameBatcher<BitcoinAddress> scanResults =
+            new FrameBatcher<>(this::applyScanResults, MAX_RESULTS_PER_FRAME);
 
     public AddressScannerView(AddressTableModel tableModel, AddressListTableModel addressesModel) {
         this.tableModel = tableModel;
@@ -52,6 +66,7 @@ public class AddressScannerView extends JFrame implements ScanObserver {
         this.uploadButton = uploadButton;
         this.clearButton = clearButton;
         this.scanButton = scanButton;
+        this.cancelButton = cancelButton;
         this.saveButton = saveButton;
         this.resultsTable = resultsTable;
         this.addressesTable = addressesTable;
@@ -76,6 +91,8 @@ public class AddressScannerView extends JFrame implements ScanObserver {
         uploadButton = createButton("Upload file");
         clearButton = createButton("Clear table");
         scanButton = createButton("Scan");
+        cancelButton = createButton("Cancel scan");
+        cancelButton.setEnabled(false);
         saveButton = createButton("Save results");
 
         addressesTable = new JTable(addressesModel);
@@ -83,9 +100,13 @@ public class AddressScannerView extends JFrame implements ScanObserver {
 
         resultsTable = new JTable(tableModel);
         setupResultTable();
+        minAbuseSpinner = new JSpinner(new SpinnerNumberModel(0, 0, Integer.MAX_VALUE, 1));
+        prefixFilterField = new JTextField(12);
+        setupResultFilter();
 
         logArea = new JTextPane();
         logArea.setEditable(false);
+        logSink = new TextPaneLogSink(logArea, Config.getInstance().getLogUiMaxLines());
     }
 
     private JButton createButton(String text) {
@@ -121,11 +142,56 @@ public class AddressScannerView extends JFrame implements ScanObserver {
         resultsTable.setCellSelectionEnabled(true);
         resultsTable.setRowSelectionAllowed(false);
         resultsTable.setColumnSelectionAllowed(true);
+        resultsTable.getTableHeader().addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int column = resultsTable.columnAtPoint(e.getPoint());
+                if (column != -1) {
+                    tableModel.toggleSort(resultsTable.convertColumnIndexToModel(column));
+                    updateSortIndicator();
+                }
+            }
+        });
+    }
+
+    private void updateSortIndicator() {
+        for (int i = 0; i < tableModel.getColumnCount(); i++) {
+            String name = tableModel.getColumnName(i);
+            if (i == tableModel.getSortColumn()) {
+                name += tableModel.isSortDescending() ? " \u25BC" : " \u25B2";
+            }
+            resultsTable.getColumnModel().getColumn(resultsTable.convertColumnIndexToView(i)).setHeaderValue(name);
+        }
+        resultsTable.getTableHeader().repaint();
+    }
+
+    private void setupResultFilter() {
+        minAbuseSpinner.addChangeListener(e -> applyResultFilter());
+        prefixFilterField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                applyResultFilter();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                applyResultFilter();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                applyResultFilter();
+            }
+        });
+    }
+
+    private void applyResultFilter() {
+        tableModel.setFilter((Integer) minAbuseSpinner.getValue(), prefixFilterField.getText());
     }
 
     private void configureStyles() {
         // Buttons
-        Arrays.asList(addButton, uploadButton, clearButton, scanButton, saveButton).forEach(button -> {
+        Arrays.asList(addButton, uploadButton, clearButton, scanButton, cancelButton, saveButton).forEach(button -> {
             button.setBackground(PRIMARY_COLOR);
             button.setForeground(Color.BLACK);
             button.setFont(BUTTON_FONT);
@@ -144,6 +210,7 @@ public class AddressScannerView extends JFrame implements ScanObserver {
 
         // Text components
         addressField.setFont(TABLE_FONT);
+        prefixFilterField.setFont(TABLE_FONT);
         logArea.setFont(LOG_FONT);
         logArea.setBackground(new Color(250, 250, 250));
     }
@@ -174,7 +241,7 @@ public class AddressScannerView extends JFrame implements ScanObserver {
 
     private JPanel createButtonPanel() {
         JPanel panel = new JPanel(new FlowLayout(FlowLayout.LEFT));
-        Arrays.asList(uploadButton, clearButton, scanButton, saveButton)
+        Arrays.asList(uploadButton, clearButton, scanButton, cancelButton, saveButton)
                 .forEach(panel::add);
         return panel;
     }
@@ -182,7 +249,18 @@ public class AddressScannerView extends JFrame implements ScanObserver {
     private JPanel createTablesPanel() {
         JPanel panel = new JPanel(new GridLayout(1, 2, PADDING, 0));
         panel.add(createTablePanel("Addresses", addressesTable));
-        panel.add(createTablePanel("Scan Results", resultsTable));
+        JPanel results = createTablePanel("Scan Results", resultsTable);
+        results.add(createResultFilterPanel(), BorderLayout.SOUTH);
+        panel.add(results);
+        return panel;
+    }
+
+    private JPanel createResultFilterPanel() {
+        JPanel panel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        panel.add(new JLabel("Min abuses:"));
+        panel.add(minAbuseSpinner);
+        panel.add(new JLabel("Address prefix:"));
+        panel.add(prefixFilterField);
         return panel;
     }
 
@@ -202,15 +280,16 @@ public class AddressScannerView extends JFrame implements ScanObserver {
     }
 
     public void appendLog(String message) {
-        SwingUtilities.invokeLater(() -> {
-            try {
-                StyledDocument doc = logArea.getStyledDocument();
-                doc.insertString(doc.getLength(), message + "\n", null);
-                logArea.setCaretPosition(doc.getLength());
-            } catch (BadLocationException e) {
-                e.printStackTrace();
-            }
-        });
+        SwingUtilities.invokeLater(() -> logSink.appendText(message + "\n"));
+    }
+
+    private void applyScanResults(List<BitcoinAddress> batch) {
+        tableModel.addAddresses(batch);
+        StringBuilder log = new StringBuilder(batch.size() * 64);
+        for (BitcoinAddress address : batch) {
+            log.append("Scanned address: ").append(address.getAddress()).append('\n');
+        }
+        logSink.appendText(log.toString());
     }
 
     @Override
@@ -220,25 +299,41 @@ public class AddressScannerView extends JFrame implements ScanObserver {
 
     @Override
     public void onAddressScanned(BitcoinAddress address) {
-        SwingUtilities.invokeLater(() -> {
-            tableModel.addAddress(address);
-            appendLog("Scanned address: " + address.getAddress());
-        });
+        scanResults.submit(address);
     }
 
     @Override
     public void onScanCompleted(List<BitcoinAddress> results) {
-        SwingUtilities.invokeLater(() -> setButtonsEnabled(true));
+        SwingUtilities.invokeLater(() -> {
+            scanResults.flush();
+            setButtonsEnabled(true);
+        });
     }
 
     @Override
     public void onScanFailed(Exception e) {
-        SwingUtilities.invokeLater(() -> setButtonsEnabled(true));
+        SwingUtilities.invokeLater(() -> {
+            scanResults.flush();
+            setButtonsEnabled(true);
+        });
+    }
+
+    @Override
+    public void onScanCancelled() {
+        SwingUtilities.invokeLater(() -> {
+            scanResults.flush();
+            logSink.appendText("Scan cancelled\n");
+            setButtonsEnabled(true);
+        });
     }
 
+    /**
+     * Add stays enabled during a scan: a hand-added address is looked up in the
+     * interactive lane, ahead of the running bulk scan.
+     */
     private void setButtonsEnabled(boolean enabled) {
         scanButton.setEnabled(enabled);
-        addButton.setEnabled(enabled);
+        cancelButton.setEnabled(!enabled);
         uploadButton.setEnabled(enabled);
     }
 
@@ -246,9 +341,11 @@ public class AddressScannerView extends JFrame implements ScanObserver {
     public String getAddressFieldText() { return addressField.getText(); }
     public void clearAddressField() { addressField.setText(""); }
     public JTextPane getLogArea() { return logArea; }
+    public TextPaneLogSink getLogSink() { return logSink; }
     public JButton getAddButton() { return addButton; }
     public JButton getUploadButton() { return uploadButton; }
     public JButton getClearButton() { return clearButton; }
     public JButton getScanButton() { return scanButton; }
+    public JButton getCancelButton() { return cancelButton; }
     public JButton getSaveButton() { return saveButton; }
 }
\ No newline at end of file
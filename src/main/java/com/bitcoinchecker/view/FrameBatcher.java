@@ -0,0 +1,78 @@
+package com.bitcoinchecker.view;
+
+import javax.swing.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Bridge that coalesces events from worker threads into per-frame batches on the EDT.
+ * Features:
+ * - Lock-free submission from any thread (no invokeLater per event)
+ * - Drained once per frame tick by a Swing Timer, which only runs while events are pending
+ * - Batches are capped so one tick never monopolizes the EDT; the rest waits for the next tick
+ * - flush() drains synchronously, for state changes that must follow all pending events
+ */
+public class FrameBatcher<T> {
+    public static final int FRAME_MILLIS = 16;
+
+    private final Queue<T> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final Consumer<List<T>> handler;
+    private final int maxBatch;
+    private final Timer timer;
+
+    /**
+     * @param handler  invoked on the EDT with each non-empty batch, in submission order
+     * @param maxBatch maximum number of events handed over per tick
+     */
+    public FrameBatcher(Consumer<List<T>> handler, int maxBatch) {
+        this.handler = handler;
+        this.maxBatch = maxBatch;
+        this.timer = new Timer(FRAME_MILLIS, e -> tick());
+        this.timer.setCoalesce(true);
+    }
+
+    public void submit(T event) {
+        pending.offer(event);
+        if (scheduled.compareAndSet(false, true)) {
+            timer.start();
+        }
+    }
+
+    /**
+     * Hands every pending event to the handler. Must be called on the EDT.
+     */
+    public void flush() {
+        while (drain() == maxBatch) {
+            // keep draining until the queue is empty
+        }
+    }
+
+    private void tick() {
+        drain();
+        if (pending.isEmpty()) {
+            timer.stop();
+            scheduled.set(false);
+            // An event may have slipped in between the empty check and clearing the flag
+            if (!pending.isEmpty() && scheduled.compareAndSet(false, true)) {
+                timer.start();
+            }
+        }
+    }
+
+    private int drain() {
+        List<T> batch = new ArrayList<>(Math.min(maxBatch, 1024));
+        T event;
+        while (batch.size() < maxBatch && (event = pending.poll()) != null) {
+            batch.add(event);
+        }
+        if (!batch.isEmpty()) {
+            handler.accept(batch);
+        }
+        return batch.size();
+    }
+}
@@ -0,0 +1,104 @@
+package com.bitcoinchecker.view;
+
+import com.bitcoinchecker.util.LogSink;
+
+import javax.swing.*;
+import javax.swing.text.AttributeSet;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Element;
+import javax.swing.text.SimpleAttributeSet;
+import javax.swing.text.StyleConstants;
+import javax.swing.text.StyledDocument;
+import java.awt.Color;
+import java.util.List;
+
+/**
+ * LogSink that shows log lines in a JTextPane.
+ * Features:
+ * - Color coded logging (green/red)
+ * - Lines from any thread are coalesced by a FrameBatcher and inserted once per frame,
+ *   one insert per run of equally styled lines
+ * - Document capped at a maximum number of lines, trimmed from the top
+ */
+public class TextPaneLogSink implements LogSink {
+    private static final int MAX_LINES_PER_FRAME = 5000;
+
+    private final JTextPane logArea;
+    private final int maxLines;
+    private final SimpleAttributeSet greenStyle;
+    private final SimpleAttributeSet redStyle;
+    private final FrameBatcher<LogLine> lines = new FrameBatcher<>(this::appendLines, MAX_LINES_PER_FRAME);
+
+    public TextPaneLogSink(JTextPane logArea, int maxLines) {
+        this.logArea = logArea;
+        this.maxLines = maxLines;
+
+        greenStyle = new SimpleAttributeSet();
+        StyleConstants.setForeground(greenStyle, new Color(0, 128, 0));
+
+        redStyle = new SimpleAttributeSet();
+        StyleConstants.setForeground(redStyle, Color.RED);
+    }
+
+    @Override
+    public void append(String line, boolean isError) {
+        lines.submit(new LogLine(line, isError ? redStyle : greenStyle));
+    }
+
+    /**
+     * Appends already formatted text in the default style. Must be called on the EDT.
+     */
+    public void appendText(String text) {
+        insert(text, null);
+        trimAndScroll();
+    }
+
+    private void appendLines(List<LogLine> batch) {
+        StringBuilder run = new StringBuilder();
+        AttributeSet runStyle = batch.get(0).style;
+        for (LogLine line : batch) {
+            if (line.style != runStyle) {
+                insert(run.toString(), runStyle);
+                run.setLength(0);
+                runStyle = line.style;
+            }
+            run.append(line.text).append('\n');
+        }
+        insert(run.toString(), runStyle);
+        trimAndScroll();
+    }
+
+    private void insert(String text, AttributeSet style) {
+        StyledDocument doc = logArea.getStyledDocument();
+        try {
+            doc.insertString(doc.getLength(), text, style);
+        } catch (BadLocationException e) {
+            System.err.println("Error appending to log area: " + e.getMessage());
+        }
+    }
+
+    private void trimAndScroll() {
+        StyledDocument doc = logArea.getStyledDocument();
+        Element root = doc.getDefaultRootElement();
+        // The last element is the empty line after the trailing newline
+        int excess = root.getElementCount() - 1 - maxLines;
+        if (excess > 0) {
+            try {
+                doc.remove(0, root.getElement(excess).getStartOffset());
+            } catch (BadLocationException e) {
+                System.err.println("Error trimming log area: " + e.getMessage());
+            }
+        }
+        logArea.setCaretPosition(doc.getLength());
+    }
+
+    private static class LogLine {
+        private final String text;
+        private final AttributeSet style;
+
+        LogLine(String text, AttributeSet style) {
+            this.text = text;
+            this.style = style;
+        }
+    }
+}